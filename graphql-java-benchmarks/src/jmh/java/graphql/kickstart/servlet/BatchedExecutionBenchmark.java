@@ -0,0 +1,74 @@
+package graphql.kickstart.servlet;
+
+import graphql.ExecutionResult;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.GraphQLRequest;
+import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Measures batched execution and writing the results with {@link BatchedQueryResponseWriter}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchedExecutionBenchmark {
+
+  private GraphQLConfiguration configuration;
+  private GraphQLObjectMapper mapper;
+  private List<GraphQLRequest> requests;
+  private List<ExecutionResult> results;
+
+  @Setup
+  public void setup() {
+    configuration = BenchmarkFixtures.createConfiguration();
+    mapper = configuration.getObjectMapper();
+    requests = new ArrayList<>();
+    for (int i = 0; i < BenchmarkFixtures.BATCH_SIZE; i++) {
+      requests.add(
+          new GraphQLRequest(
+              BenchmarkFixtures.QUERY, Map.of("first", 20), Map.of(), "Characters"));
+    }
+    results = execute();
+  }
+
+  @Benchmark
+  public List<ExecutionResult> execute() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+    GraphQLBatchedInvocationInput input =
+        configuration
+            .getInvocationInputFactory()
+            .create(
+                configuration.getContextSetting(),
+                requests,
+                request,
+                new MockHttpServletResponse());
+    return configuration.getGraphQLInvoker().query(input).getResults();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse writeResults() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new BatchedQueryResponseWriter(results, mapper)
+        .write(new MockHttpServletRequest("POST", "/graphql"), response);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse executeAndWrite() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new BatchedQueryResponseWriter(execute(), mapper)
+        .write(new MockHttpServletRequest("POST", "/graphql"), response);
+    return response;
+  }
+}
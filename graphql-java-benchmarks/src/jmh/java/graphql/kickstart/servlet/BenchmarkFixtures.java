@@ -0,0 +1,105 @@
+package graphql.kickstart.servlet;
+
+import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
+
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/** Schema, queries and requests shared by the benchmarks. */
+final class BenchmarkFixtures {
+
+  static final String QUERY =
+      "query Characters($first: Int) { characters(first: $first) { id name friends { id name } } }";
+  static final int CHARACTERS = 50;
+  static final int BATCH_SIZE = 10;
+
+  private static final String SCHEMA =
+      "type Query { characters(first: Int): [Character] }\n"
+          + "type Character { id: ID! name: String friends: [Character] }";
+
+  private BenchmarkFixtures() {}
+
+  static GraphQLSchema createSchema() {
+    List<Map<String, Object>> characters = new ArrayList<>();
+    for (int i = 0; i < CHARACTERS; i++) {
+      Map<String, Object> character = new HashMap<>();
+      character.put("id", String.valueOf(i));
+      character.put("name", "Character " + i);
+      characters.add(character);
+    }
+    for (int i = 0; i < CHARACTERS; i++) {
+      characters
+          .get(i)
+          .put(
+              "friends",
+              List.of(
+                  characters.get((i + 1) % CHARACTERS), characters.get((i + 2) % CHARACTERS)));
+    }
+
+    return new SchemaGenerator()
+        .makeExecutableSchema(
+            new SchemaParser().parse(SCHEMA),
+            newRuntimeWiring()
+                .type(
+                    "Query",
+                    builder ->
+                        builder.dataFetcher(
+                            "characters",
+                            env -> {
+                              Integer first = env.getArgument("first");
+                              return first == null
+                                  ? characters
+                                  : characters.subList(0, Math.min(first, characters.size()));
+                            }))
+                .build());
+  }
+
+  static GraphQLConfiguration createConfiguration() {
+    return GraphQLConfiguration.with(createSchema()).build();
+  }
+
+  static Map<String, Object> request() {
+    Map<String, Object> request = new HashMap<>();
+    request.put("query", QUERY);
+    request.put("operationName", "Characters");
+    request.put("variables", Map.of("first", 20));
+    return request;
+  }
+
+  static byte[] singleBody(GraphQLObjectMapper mapper) throws Exception {
+    return mapper.getJacksonMapper().writeValueAsBytes(request());
+  }
+
+  static byte[] batchedBody(GraphQLObjectMapper mapper) throws Exception {
+    List<Map<String, Object>> requests = new ArrayList<>();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      requests.add(request());
+    }
+    return mapper.getJacksonMapper().writeValueAsBytes(requests);
+  }
+
+  static MockHttpServletRequest postRequest(byte[] body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+    request.setAsyncSupported(false);
+    request.setContentType("application/json");
+    request.setContent(body);
+    return request;
+  }
+
+  static MockHttpServletRequest getRequest(GraphQLObjectMapper mapper) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/graphql");
+    request.setAsyncSupported(false);
+    request.addParameter("query", QUERY);
+    request.addParameter("operationName", "Characters");
+    request.addParameter(
+        "variables", mapper.getJacksonMapper().writeValueAsString(Map.of("first", 20)));
+    return request;
+  }
+}
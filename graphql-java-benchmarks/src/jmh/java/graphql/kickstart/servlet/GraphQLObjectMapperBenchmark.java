@@ -0,0 +1,62 @@
+package graphql.kickstart.servlet;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.GraphQLRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures reading requests and serializing results with {@link GraphQLObjectMapper}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GraphQLObjectMapperBenchmark {
+
+  private GraphQLObjectMapper mapper;
+  private ExecutionResult result;
+  private byte[] singleBody;
+
+  @Setup
+  public void setup() throws Exception {
+    mapper = GraphQLObjectMapper.newBuilder().build();
+    result =
+        GraphQL.newGraphQL(BenchmarkFixtures.createSchema())
+            .build()
+            .execute(
+                builder ->
+                    builder.query(BenchmarkFixtures.QUERY).variables(Map.of("first", 20)));
+    singleBody = BenchmarkFixtures.singleBody(mapper);
+  }
+
+  @Benchmark
+  public byte[] serializeResultAsBytes() {
+    return mapper.serializeResultAsBytes(result);
+  }
+
+  @Benchmark
+  public String serializeResultAsString() {
+    return mapper.serializeResultAsJson(result);
+  }
+
+  @Benchmark
+  public ByteArrayOutputStream serializeResultToStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+    mapper.serializeResultAsJson(out, result);
+    return out;
+  }
+
+  @Benchmark
+  public GraphQLRequest readGraphQLRequest() throws Exception {
+    return mapper.readGraphQLRequest(new ByteArrayInputStream(singleBody));
+  }
+}
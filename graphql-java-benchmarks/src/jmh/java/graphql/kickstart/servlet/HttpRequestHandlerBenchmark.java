@@ -0,0 +1,54 @@
+package graphql.kickstart.servlet;
+
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Measures {@link HttpRequestHandler#handle} from parsing the request to writing the response. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HttpRequestHandlerBenchmark {
+
+  private HttpRequestHandler handler;
+  private GraphQLObjectMapper mapper;
+  private byte[] singleBody;
+  private byte[] batchedBody;
+
+  @Setup
+  public void setup() throws Exception {
+    GraphQLConfiguration configuration = BenchmarkFixtures.createConfiguration();
+    handler = configuration.getHttpRequestHandler();
+    mapper = configuration.getObjectMapper();
+    singleBody = BenchmarkFixtures.singleBody(mapper);
+    batchedBody = BenchmarkFixtures.batchedBody(mapper);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse get() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    handler.handle(BenchmarkFixtures.getRequest(mapper), response);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse post() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    handler.handle(BenchmarkFixtures.postRequest(singleBody), response);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse postBatched() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    handler.handle(BenchmarkFixtures.postRequest(batchedBody), response);
+    return response;
+  }
+}
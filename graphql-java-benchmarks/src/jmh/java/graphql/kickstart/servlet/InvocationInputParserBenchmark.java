@@ -0,0 +1,86 @@
+package graphql.kickstart.servlet;
+
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.input.GraphQLInvocationInput;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+
+/** Measures the GET, POST and multipart {@link GraphQLInvocationInputParser}s. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InvocationInputParserBenchmark {
+
+  private GraphQLConfiguration configuration;
+  private GraphQLObjectMapper mapper;
+  private byte[] singleBody;
+  private byte[] batchedBody;
+  private byte[] operations;
+  private byte[] map;
+
+  @Setup
+  public void setup() throws Exception {
+    configuration = BenchmarkFixtures.createConfiguration();
+    mapper = configuration.getObjectMapper();
+    singleBody = BenchmarkFixtures.singleBody(mapper);
+    batchedBody = BenchmarkFixtures.batchedBody(mapper);
+    Map<String, Object> request = BenchmarkFixtures.request();
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("first", 20);
+    variables.put("file", null);
+    request.put("variables", variables);
+    operations = mapper.getJacksonMapper().writeValueAsBytes(request);
+    map = mapper.getJacksonMapper().writeValueAsBytes(Map.of("0", List.of("variables.file")));
+  }
+
+  @Benchmark
+  public GraphQLInvocationInput get() throws Exception {
+    return parse(BenchmarkFixtures.getRequest(mapper));
+  }
+
+  @Benchmark
+  public GraphQLInvocationInput post() throws Exception {
+    return parse(BenchmarkFixtures.postRequest(singleBody));
+  }
+
+  @Benchmark
+  public GraphQLInvocationInput postBatched() throws Exception {
+    return parse(BenchmarkFixtures.postRequest(batchedBody));
+  }
+
+  @Benchmark
+  public GraphQLInvocationInput multipart() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+    request.setContentType("multipart/form-data; boundary=benchmark");
+    request.addPart(new MockPart("operations", operations));
+    request.addPart(new MockPart("map", map));
+    request.addPart(
+        new MockPart("0", "upload.txt", "file content".getBytes(StandardCharsets.UTF_8)));
+    return parse(request);
+  }
+
+  private GraphQLInvocationInput parse(MockHttpServletRequest request) throws Exception {
+    // done by HttpRequestHandlerImpl before the parser is chosen
+    request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    return GraphQLInvocationInputParser.create(
+            request,
+            configuration.getInvocationInputFactory(),
+            mapper,
+            configuration.getContextSetting())
+        .getGraphQLInvocationInput(request, response);
+  }
+}
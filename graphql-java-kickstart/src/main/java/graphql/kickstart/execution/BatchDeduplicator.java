@@ -0,0 +1,79 @@
+package graphql.kickstart.execution;
+
+import graphql.ExecutionInput;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Finds the entries of a batch asking for the same operation: the same query text, operation
+ * name, variables and extensions. Only queries are deduplicated, as executing a mutation once
+ * instead of several times changes what the client asked for.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BatchDeduplicator {
+
+  /**
+   * @param executionInputs the entries of a batch
+   * @return for every entry, the position of the first entry asking for the same query, which is
+   *     its own position if there is none before it
+   */
+  static int[] firstPositions(List<ExecutionInput> executionInputs) {
+    int[] firstPositions = new int[executionInputs.size()];
+    Map<List<Object>, Integer> seen = new HashMap<>();
+    Map<List<Object>, Boolean> queries = new HashMap<>();
+    for (int i = 0; i < firstPositions.length; i++) {
+      ExecutionInput executionInput = executionInputs.get(i);
+      List<Object> key =
+          Arrays.asList(
+              executionInput.getQuery(),
+              executionInput.getOperationName(),
+              executionInput.getVariables(),
+              executionInput.getExtensions());
+      Integer first = seen.putIfAbsent(key, i);
+      boolean deduplicate =
+          first != null && queries.computeIfAbsent(key, k -> isQuery(executionInput));
+      firstPositions[i] = deduplicate ? first : i;
+    }
+    return firstPositions;
+  }
+
+  /**
+   * @return the entries to execute, which are the entries that are their own first position
+   */
+  static List<ExecutionInput> distinct(List<ExecutionInput> executionInputs, int[] firstPositions) {
+    List<ExecutionInput> distinct = new ArrayList<>();
+    for (int i = 0; i < firstPositions.length; i++) {
+      if (firstPositions[i] == i) {
+        distinct.add(executionInputs.get(i));
+      }
+    }
+    return distinct;
+  }
+
+  private static boolean isQuery(ExecutionInput executionInput) {
+    try {
+      Document document = new Parser().parseDocument(executionInput.getQuery());
+      List<OperationDefinition> operations =
+          document.getDefinitionsOfType(OperationDefinition.class);
+      for (OperationDefinition operation : operations) {
+        if (operations.size() == 1
+            || Objects.equals(operation.getName(), executionInput.getOperationName())) {
+          return operation.getOperation() == OperationDefinition.Operation.QUERY;
+        }
+      }
+    } catch (InvalidSyntaxException ignored) {
+      // executed separately, every entry reports its own syntax error
+    }
+    return false;
+  }
+}
@@ -0,0 +1,169 @@
+package graphql.kickstart.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Limits how many executions of batched requests run at the same time: at most {@code
+ * maxInFlightPerBatch} executions of one batch, and at most {@code maxInFlight} executions of all
+ * batches together. The remaining executions of a batch start as earlier ones complete, so no
+ * thread is blocked while a batch waits.
+ */
+public class BatchExecutionLimiter {
+
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private static final BatchExecutionLimiter UNLIMITED_LIMITER =
+      new BatchExecutionLimiter(UNLIMITED, UNLIMITED);
+
+  private final int maxInFlightPerBatch;
+  private final int maxInFlight;
+  private final AtomicInteger available;
+  private final Queue<Batch> waiting = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param maxInFlightPerBatch maximum number of executions of a single batch running at the same
+   *     time
+   * @param maxInFlight maximum number of executions of all batches running at the same time
+   */
+  public BatchExecutionLimiter(int maxInFlightPerBatch, int maxInFlight) {
+    if (maxInFlightPerBatch < 1 || maxInFlight < 1) {
+      throw new IllegalArgumentException("Batch execution limits must be positive");
+    }
+    this.maxInFlightPerBatch = maxInFlightPerBatch;
+    this.maxInFlight = maxInFlight;
+    this.available = new AtomicInteger(maxInFlight);
+  }
+
+  /** @return a limiter starting all executions of a batch at once */
+  public static BatchExecutionLimiter unlimited() {
+    return UNLIMITED_LIMITER;
+  }
+
+  public int getMaxInFlightPerBatch() {
+    return maxInFlightPerBatch;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Executes the inputs of a batch within the limits.
+   *
+   * @param executionInputs the inputs to execute
+   * @param maxInFlightPerBatch maximum number of these inputs executing at the same time
+   * @param execution starts the execution of an input
+   * @return the results, in the order of the inputs
+   */
+  List<CompletableFuture<ExecutionResult>> execute(
+      List<ExecutionInput> executionInputs,
+      int maxInFlightPerBatch,
+      Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution) {
+    if (maxInFlightPerBatch >= executionInputs.size() && maxInFlight == UNLIMITED) {
+      List<CompletableFuture<ExecutionResult>> results = new ArrayList<>(executionInputs.size());
+      executionInputs.forEach(executionInput -> results.add(execution.apply(executionInput)));
+      return results;
+    }
+    Batch batch = new Batch(executionInputs, maxInFlightPerBatch, execution);
+    batch.drain();
+    return batch.results;
+  }
+
+  private boolean tryAcquire() {
+    int current;
+    do {
+      current = available.get();
+      if (current == 0) {
+        return false;
+      }
+    } while (!available.compareAndSet(current, current - 1));
+    return true;
+  }
+
+  private void release() {
+    available.incrementAndGet();
+    Batch next;
+    while (available.get() > 0 && (next = waiting.poll()) != null) {
+      next.drain();
+    }
+  }
+
+  private class Batch {
+
+    private final List<ExecutionInput> executionInputs;
+    private final int maxInFlightPerBatch;
+    private final Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution;
+    private final List<CompletableFuture<ExecutionResult>> results;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private int next;
+
+    private Batch(
+        List<ExecutionInput> executionInputs,
+        int maxInFlightPerBatch,
+        Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution) {
+      this.executionInputs = executionInputs;
+      this.maxInFlightPerBatch = maxInFlightPerBatch;
+      this.execution = execution;
+      this.results = new ArrayList<>(executionInputs.size());
+      executionInputs.forEach(executionInput -> results.add(new CompletableFuture<>()));
+    }
+
+    /**
+     * Starts as many executions as the limits allow. Executions completing synchronously call
+     * back into this method, so only the first caller loops and the others ask it to go round
+     * once more, which keeps the stack flat.
+     */
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        while (next < executionInputs.size() && inFlight.get() < maxInFlightPerBatch) {
+          CompletableFuture<ExecutionResult> result = results.get(next);
+          if (result.isDone()) {
+            // cancelled before it started
+            next++;
+          } else if (tryAcquire()) {
+            inFlight.incrementAndGet();
+            start(executionInputs.get(next++), result);
+          } else {
+            waiting.add(this);
+            if (available.get() == 0) {
+              break;
+            }
+          }
+        }
+      } while (wip.decrementAndGet() != 0);
+    }
+
+    private void start(ExecutionInput executionInput, CompletableFuture<ExecutionResult> result) {
+      CompletableFuture<ExecutionResult> started;
+      try {
+        started = execution.apply(executionInput);
+      } catch (RuntimeException e) {
+        started = new CompletableFuture<>();
+        started.completeExceptionally(e);
+      }
+      started.whenComplete(
+          (executionResult, error) -> {
+            if (error != null) {
+              result.completeExceptionally(error);
+            } else {
+              result.complete(executionResult);
+            }
+            inFlight.decrementAndGet();
+            release();
+            drain();
+          });
+    }
+  }
+}
@@ -11,7 +11,7 @@ public class BatchedDataLoaderGraphQLBuilder {
     return invocationInput.getInvocationInputs().stream()
         .findFirst()
         .map(GraphQLSingleInvocationInput::getSchema)
-        .map(schema -> graphQLBuilder.build(schema, graphQLBuilder.getInstrumentationSupplier()))
+        .map(graphQLBuilder::build)
         .orElseThrow(
             () ->
                 new IllegalArgumentException(
@@ -5,22 +5,46 @@ import graphql.kickstart.execution.input.GraphQLInvocationInput;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
 class FutureBatchedExecutionResult implements FutureExecutionResult {
 
   @Getter
   private final GraphQLInvocationInput invocationInput;
   private final CompletableFuture<List<ExecutionResult>> batched;
+  private final List<CompletableFuture<ExecutionResult>> results;
+
+  FutureBatchedExecutionResult(
+      GraphQLInvocationInput invocationInput, CompletableFuture<List<ExecutionResult>> batched) {
+    this.invocationInput = invocationInput;
+    this.batched = batched;
+    this.results = null;
+  }
+
+  FutureBatchedExecutionResult(
+      GraphQLInvocationInput invocationInput, List<CompletableFuture<ExecutionResult>> results) {
+    this.invocationInput = invocationInput;
+    this.batched = GraphQLInvoker.sequence(results);
+    this.results = results;
+  }
 
   @Override
   public CompletableFuture<GraphQLQueryResult> thenApplyQueryResult() {
     return batched.thenApply(GraphQLQueryResult::create);
   }
 
+  @Override
+  public CompletableFuture<GraphQLQueryResult> thenApplyIncrementalQueryResult() {
+    if (results == null) {
+      return thenApplyQueryResult();
+    }
+    return CompletableFuture.completedFuture(GraphQLQueryResult.createIncremental(results));
+  }
+
   @Override
   public void cancel() {
+    if (results != null) {
+      results.forEach(it -> it.cancel(true));
+    }
     batched.cancel(true);
   }
 }
@@ -17,12 +17,27 @@ public interface FutureExecutionResult {
     return new FutureBatchedExecutionResult(invocationInput, batched);
   }
 
+  static FutureExecutionResult batched(
+      GraphQLInvocationInput invocationInput, List<CompletableFuture<ExecutionResult>> results) {
+    return new FutureBatchedExecutionResult(invocationInput, results);
+  }
+
   static FutureExecutionResult error(GraphQLErrorQueryResult result) {
     return new FutureErrorExecutionResult(result);
   }
 
   CompletableFuture<GraphQLQueryResult> thenApplyQueryResult();
 
+  /**
+   * Like {@link #thenApplyQueryResult()}, but batched executions complete immediately with a result
+   * exposing the individual queries as they finish, see {@link
+   * GraphQLQueryResult#getFutureResults()}. Other executions behave as {@link
+   * #thenApplyQueryResult()}.
+   */
+  default CompletableFuture<GraphQLQueryResult> thenApplyIncrementalQueryResult() {
+    return thenApplyQueryResult();
+  }
+
   GraphQLInvocationInput getInvocationInput();
 
   void cancel();
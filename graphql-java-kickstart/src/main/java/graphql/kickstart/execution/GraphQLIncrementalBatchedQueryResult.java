@@ -0,0 +1,33 @@
+package graphql.kickstart.execution;
+
+import graphql.ExecutionResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class GraphQLIncrementalBatchedQueryResult implements GraphQLQueryResult {
+
+  @Getter private final List<CompletableFuture<ExecutionResult>> futureResults;
+
+  @Override
+  public boolean isBatched() {
+    return true;
+  }
+
+  @Override
+  public boolean isAsynchronous() {
+    return false;
+  }
+
+  @Override
+  public boolean isIncremental() {
+    return true;
+  }
+
+  @Override
+  public List<ExecutionResult> getResults() {
+    return GraphQLInvoker.sequence(futureResults).join();
+  }
+}
@@ -1,38 +1,79 @@
 package graphql.kickstart.execution;
 
-import static java.util.stream.Collectors.toList;
-
+import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
+import graphql.GraphQLError;
 import graphql.kickstart.execution.config.GraphQLBuilder;
 import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput;
 import graphql.kickstart.execution.input.GraphQLInvocationInput;
 import graphql.kickstart.execution.input.GraphQLSingleInvocationInput;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import lombok.RequiredArgsConstructor;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 public class GraphQLInvoker {
 
   private final GraphQLBuilder graphQLBuilder;
   private final BatchedDataLoaderGraphQLBuilder batchedDataLoaderGraphQLBuilder;
+  private final BatchExecutionLimiter batchExecutionLimiter;
+  private final boolean deduplicateBatches;
   private final GraphQLInvokerProxy proxy = GraphQL::executeAsync;
 
+  public GraphQLInvoker(
+      GraphQLBuilder graphQLBuilder,
+      BatchedDataLoaderGraphQLBuilder batchedDataLoaderGraphQLBuilder) {
+    this(
+        graphQLBuilder, batchedDataLoaderGraphQLBuilder, BatchExecutionLimiter.unlimited(), false);
+  }
+
+  /**
+   * @param deduplicateBatches whether identical queries of a batch are executed once, sharing
+   *     their result between all entries asking for them
+   */
+  public GraphQLInvoker(
+      GraphQLBuilder graphQLBuilder,
+      BatchedDataLoaderGraphQLBuilder batchedDataLoaderGraphQLBuilder,
+      BatchExecutionLimiter batchExecutionLimiter,
+      boolean deduplicateBatches) {
+    this.graphQLBuilder = graphQLBuilder;
+    this.batchedDataLoaderGraphQLBuilder = batchedDataLoaderGraphQLBuilder;
+    this.batchExecutionLimiter = batchExecutionLimiter;
+    this.deduplicateBatches = deduplicateBatches;
+  }
+
   public FutureExecutionResult execute(GraphQLInvocationInput invocationInput) {
     if (invocationInput instanceof GraphQLSingleInvocationInput) {
       return FutureExecutionResult.single(
           invocationInput, executeAsync((GraphQLSingleInvocationInput) invocationInput));
     }
+    return execute(
+        (GraphQLBatchedInvocationInput) invocationInput,
+        batchExecutionLimiter.getMaxInFlightPerBatch());
+  }
+
+  /**
+   * Executes a batch, starting at most {@code maxInFlight} of its executions at the same time.
+   * Executions also count against the overall limit of the {@link BatchExecutionLimiter}.
+   */
+  public FutureExecutionResult execute(
+      GraphQLBatchedInvocationInput batchedInvocationInput, int maxInFlight) {
     return FutureExecutionResult.batched(
-        invocationInput, executeAsync((GraphQLBatchedInvocationInput) invocationInput));
+        batchedInvocationInput, executeEach(batchedInvocationInput, maxInFlight));
   }
 
   public CompletableFuture<ExecutionResult> executeAsync(
       GraphQLSingleInvocationInput invocationInput) {
+    if (invocationInput.getError() != null) {
+      return CompletableFuture.completedFuture(errorResult(invocationInput.getError()));
+    }
     GraphQL graphQL = graphQLBuilder.build(invocationInput.getSchema());
     return proxy.executeAsync(graphQL, invocationInput.getExecutionInput());
   }
@@ -53,16 +94,62 @@ public class GraphQLInvoker {
 
   private CompletableFuture<List<ExecutionResult>> executeAsync(
       GraphQLBatchedInvocationInput batchedInvocationInput) {
+    return sequence(
+        executeEach(batchedInvocationInput, batchExecutionLimiter.getMaxInFlightPerBatch()));
+  }
+
+  private List<CompletableFuture<ExecutionResult>> executeEach(
+      GraphQLBatchedInvocationInput batchedInvocationInput, int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Batch execution limit must be positive");
+    }
     GraphQL graphQL =
         batchedDataLoaderGraphQLBuilder.newGraphQL(batchedInvocationInput, graphQLBuilder);
-    return sequence(
-        batchedInvocationInput.getExecutionInputs().stream()
-            .map(executionInput -> proxy.executeAsync(graphQL, executionInput))
-            .collect(toList()));
+    Map<ExecutionInput, ExecutionResult> errorResults = errorResults(batchedInvocationInput);
+    Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution =
+        errorResults.isEmpty()
+            ? executionInput -> proxy.executeAsync(graphQL, executionInput)
+            : executionInput ->
+                errorResults.containsKey(executionInput)
+                    ? CompletableFuture.completedFuture(errorResults.get(executionInput))
+                    : proxy.executeAsync(graphQL, executionInput);
+    List<ExecutionInput> executionInputs = batchedInvocationInput.getExecutionInputs();
+    if (!deduplicateBatches) {
+      return batchExecutionLimiter.execute(executionInputs, maxInFlight, execution);
+    }
+
+    int[] firstPositions = BatchDeduplicator.firstPositions(executionInputs);
+    List<CompletableFuture<ExecutionResult>> distinctResults =
+        batchExecutionLimiter.execute(
+            BatchDeduplicator.distinct(executionInputs, firstPositions), maxInFlight, execution);
+    List<CompletableFuture<ExecutionResult>> results = new ArrayList<>(firstPositions.length);
+    Iterator<CompletableFuture<ExecutionResult>> distinct = distinctResults.iterator();
+    for (int i = 0; i < firstPositions.length; i++) {
+      results.add(firstPositions[i] == i ? distinct.next() : results.get(firstPositions[i]));
+    }
+    return results;
+  }
+
+  /** @return the results of the entries answered with an error instead of being executed */
+  private static Map<ExecutionInput, ExecutionResult> errorResults(
+      GraphQLBatchedInvocationInput batchedInvocationInput) {
+    Map<ExecutionInput, ExecutionResult> errorResults = new IdentityHashMap<>();
+    for (GraphQLSingleInvocationInput invocationInput :
+        batchedInvocationInput.getInvocationInputs()) {
+      if (invocationInput.getError() != null) {
+        errorResults.put(
+            invocationInput.getExecutionInput(), errorResult(invocationInput.getError()));
+      }
+    }
+    return errorResults;
+  }
+
+  private static ExecutionResult errorResult(GraphQLError error) {
+    return ExecutionResultImpl.newExecutionResult().addError(error).build();
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
-  private <T> CompletableFuture<List<T>> sequence(List<CompletableFuture<T>> futures) {
+  static <T> CompletableFuture<List<T>> sequence(List<CompletableFuture<T>> futures) {
     CompletableFuture[] futuresArray = futures.toArray(new CompletableFuture[0]);
     return CompletableFuture.allOf(futuresArray)
         .thenApply(
@@ -2,6 +2,8 @@ package graphql.kickstart.execution;
 
 import static java.util.stream.Collectors.toList;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,6 +18,7 @@ import graphql.kickstart.execution.error.DefaultGraphQLErrorHandler;
 import graphql.kickstart.execution.error.GraphQLErrorHandler;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -106,6 +109,48 @@ public class GraphQLObjectMapper {
     getJacksonMapper().writeValue(writer, createResultFromExecutionResult(executionResult));
   }
 
+  /**
+   * Serializes result directly into the given stream in UTF-8 encoding without buffering the whole
+   * result in memory. The stream is flushed but not closed.
+   *
+   * @param outputStream stream to write the serialized result to.
+   * @param executionResult query execution result to serialize.
+   * @throws IOException if writing to the stream fails.
+   */
+  public void serializeResultAsJson(OutputStream outputStream, ExecutionResult executionResult)
+      throws IOException {
+    try (JsonGenerator generator = createJsonGenerator(outputStream)) {
+      serializeResultAsJson(generator, executionResult);
+    }
+  }
+
+  /**
+   * Writes the result as the next value of the given generator, allowing several results to share
+   * one generator.
+   *
+   * @param generator generator to write the serialized result to.
+   * @param executionResult query execution result to serialize.
+   * @throws IOException if writing to the generator fails.
+   */
+  public void serializeResultAsJson(JsonGenerator generator, ExecutionResult executionResult)
+      throws IOException {
+    getJacksonMapper().writeValue(generator, createResultFromExecutionResult(executionResult));
+  }
+
+  /**
+   * Creates a UTF-8 {@link JsonGenerator} on top of the given stream. Closing the generator flushes
+   * it but leaves the underlying stream open.
+   *
+   * @param outputStream stream the generator writes to.
+   * @return a new generator configured like the Jackson mapper.
+   * @throws IOException if the generator cannot be created.
+   */
+  public JsonGenerator createJsonGenerator(OutputStream outputStream) throws IOException {
+    return getJacksonMapper()
+        .createGenerator(outputStream, JsonEncoding.UTF8)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
   /**
    * Serializes result as bytes in UTF-8 encoding instead of string.
    *
@@ -5,6 +5,7 @@ import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.SimplePerformantInstrumentation;
 import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
 import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.kickstart.execution.config.CachingPreparsedDocumentProvider;
 import graphql.kickstart.execution.config.DefaultExecutionStrategyProvider;
 import graphql.kickstart.execution.config.ExecutionStrategyProvider;
 import graphql.kickstart.execution.config.GraphQLBuilder;
@@ -19,14 +20,44 @@ public class GraphQLQueryInvoker {
   private final Supplier<ExecutionStrategyProvider> getExecutionStrategyProvider;
   private final Supplier<Instrumentation> getInstrumentation;
   private final Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider;
+  private final boolean cacheGraphQL;
+  private final BatchExecutionLimiter batchExecutionLimiter;
+  private final boolean deduplicateBatches;
 
   protected GraphQLQueryInvoker(
       Supplier<ExecutionStrategyProvider> getExecutionStrategyProvider,
       Supplier<Instrumentation> getInstrumentation,
       Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider) {
+    this(getExecutionStrategyProvider, getInstrumentation, getPreparsedDocumentProvider, false);
+  }
+
+  protected GraphQLQueryInvoker(
+      Supplier<ExecutionStrategyProvider> getExecutionStrategyProvider,
+      Supplier<Instrumentation> getInstrumentation,
+      Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider,
+      boolean cacheGraphQL) {
+    this(
+        getExecutionStrategyProvider,
+        getInstrumentation,
+        getPreparsedDocumentProvider,
+        cacheGraphQL,
+        BatchExecutionLimiter.unlimited(),
+        false);
+  }
+
+  protected GraphQLQueryInvoker(
+      Supplier<ExecutionStrategyProvider> getExecutionStrategyProvider,
+      Supplier<Instrumentation> getInstrumentation,
+      Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider,
+      boolean cacheGraphQL,
+      BatchExecutionLimiter batchExecutionLimiter,
+      boolean deduplicateBatches) {
     this.getExecutionStrategyProvider = getExecutionStrategyProvider;
     this.getInstrumentation = getInstrumentation;
     this.getPreparsedDocumentProvider = getPreparsedDocumentProvider;
+    this.cacheGraphQL = cacheGraphQL;
+    this.batchExecutionLimiter = batchExecutionLimiter;
+    this.deduplicateBatches = deduplicateBatches;
   }
 
   public static Builder newBuilder() {
@@ -34,12 +65,26 @@ public class GraphQLQueryInvoker {
   }
 
   public GraphQLInvoker toGraphQLInvoker() {
+    return toGraphQLInvoker(getPreparsedDocumentProvider);
+  }
+
+  /**
+   * Creates a {@link GraphQLInvoker} using the given preparsed document provider instead of the
+   * one this invoker was built with.
+   */
+  public GraphQLInvoker toGraphQLInvoker(
+      Supplier<PreparsedDocumentProvider> preparsedDocumentProvider) {
     GraphQLBuilder graphQLBuilder =
         new GraphQLBuilder()
             .executionStrategyProvider(getExecutionStrategyProvider)
             .instrumentation(getInstrumentation)
-            .preparsedDocumentProvider(getPreparsedDocumentProvider);
-    return new GraphQLInvoker(graphQLBuilder, new BatchedDataLoaderGraphQLBuilder());
+            .preparsedDocumentProvider(preparsedDocumentProvider)
+            .cacheGraphQL(cacheGraphQL);
+    return new GraphQLInvoker(
+        graphQLBuilder,
+        new BatchedDataLoaderGraphQLBuilder(),
+        batchExecutionLimiter,
+        deduplicateBatches);
   }
 
   public static class Builder {
@@ -50,22 +95,30 @@ public class GraphQLQueryInvoker {
         () -> SimplePerformantInstrumentation.INSTANCE;
     private Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider =
         () -> NoOpPreparsedDocumentProvider.INSTANCE;
+    private Boolean cacheGraphQL;
+    private boolean perRequestSuppliers;
+    private BatchExecutionLimiter batchExecutionLimiter = BatchExecutionLimiter.unlimited();
+    private boolean deduplicateBatches = false;
 
     public Builder withExecutionStrategyProvider(ExecutionStrategyProvider provider) {
-      return withExecutionStrategyProvider(() -> provider);
+      this.getExecutionStrategyProvider = () -> provider;
+      return this;
     }
 
     public Builder withExecutionStrategyProvider(Supplier<ExecutionStrategyProvider> supplier) {
       this.getExecutionStrategyProvider = supplier;
+      this.perRequestSuppliers = true;
       return this;
     }
 
     public Builder withInstrumentation(Instrumentation instrumentation) {
-      return withInstrumentation(() -> instrumentation);
+      this.getInstrumentation = () -> instrumentation;
+      return this;
     }
 
     public Builder withInstrumentation(Supplier<Instrumentation> supplier) {
       this.getInstrumentation = supplier;
+      this.perRequestSuppliers = true;
       return this;
     }
 
@@ -82,11 +135,64 @@ public class GraphQLQueryInvoker {
     }
 
     public Builder withPreparsedDocumentProvider(PreparsedDocumentProvider provider) {
-      return withPreparsedDocumentProvider(() -> provider);
+      this.getPreparsedDocumentProvider = () -> provider;
+      return this;
     }
 
     public Builder withPreparsedDocumentProvider(Supplier<PreparsedDocumentProvider> supplier) {
       this.getPreparsedDocumentProvider = supplier;
+      this.perRequestSuppliers = true;
+      return this;
+    }
+
+    /**
+     * Caches parsed and validated documents of up to {@code maxSize} distinct queries.
+     *
+     * @param maxSize maximum number of cached documents
+     * @return this builder
+     */
+    public Builder withPreparsedDocumentCache(int maxSize) {
+      return withPreparsedDocumentProvider(new CachingPreparsedDocumentProvider(maxSize));
+    }
+
+    /**
+     * Whether the {@link graphql.GraphQL} instance is built once per schema and reused for
+     * subsequent requests. By default it is, unless an execution strategy, instrumentation or
+     * preparsed document provider was given as a {@link Supplier}, as such suppliers may return a
+     * different instance for every request.
+     *
+     * @param cacheGraphQL whether to reuse built {@link graphql.GraphQL} instances
+     * @return this builder
+     */
+    public Builder withGraphQLCache(boolean cacheGraphQL) {
+      this.cacheGraphQL = cacheGraphQL;
+      return this;
+    }
+
+    /**
+     * Limits how many executions of batched requests run at the same time. By default all
+     * executions of a batch start at once.
+     *
+     * @param maxInFlightPerBatch maximum number of executions of a single batch running at the
+     *     same time, unless a {@code BatchInputPreProcessor} sets another limit for the batch
+     * @param maxInFlight maximum number of executions of all batches running at the same time
+     * @return this builder
+     */
+    public Builder withBatchExecutionLimits(int maxInFlightPerBatch, int maxInFlight) {
+      this.batchExecutionLimiter = new BatchExecutionLimiter(maxInFlightPerBatch, maxInFlight);
+      return this;
+    }
+
+    /**
+     * Executes identical queries of a batch once. Entries with the same query text, operation
+     * name, variables and extensions share one execution result, which runs with the context of
+     * the first of them. Mutations are always executed for every entry.
+     *
+     * @param deduplicateBatches whether to execute identical queries of a batch once
+     * @return this builder
+     */
+    public Builder withBatchDeduplication(boolean deduplicateBatches) {
+      this.deduplicateBatches = deduplicateBatches;
       return this;
     }
 
@@ -94,7 +200,10 @@ public class GraphQLQueryInvoker {
       return new GraphQLQueryInvoker(
           getExecutionStrategyProvider,
           getInstrumentation,
-          getPreparsedDocumentProvider);
+          getPreparsedDocumentProvider,
+          cacheGraphQL != null ? cacheGraphQL : !perRequestSuppliers,
+          batchExecutionLimiter,
+          deduplicateBatches);
     }
   }
 }
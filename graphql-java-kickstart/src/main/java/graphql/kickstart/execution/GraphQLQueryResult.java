@@ -4,6 +4,7 @@ import static java.util.Collections.emptyList;
 
 import graphql.ExecutionResult;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface GraphQLQueryResult {
 
@@ -15,6 +16,11 @@ public interface GraphQLQueryResult {
     return new GraphQLBatchedQueryResult(results);
   }
 
+  static GraphQLIncrementalBatchedQueryResult createIncremental(
+      List<CompletableFuture<ExecutionResult>> results) {
+    return new GraphQLIncrementalBatchedQueryResult(results);
+  }
+
   static GraphQLErrorQueryResult createError(int statusCode, String message) {
     return new GraphQLErrorQueryResult(statusCode, message);
   }
@@ -31,6 +37,16 @@ public interface GraphQLQueryResult {
     return emptyList();
   }
 
+  /** @return whether the batched results can be written individually as they complete */
+  default boolean isIncremental() {
+    return false;
+  }
+
+  /** @return the pending results of an incremental batch, in the order of the batch */
+  default List<CompletableFuture<ExecutionResult>> getFutureResults() {
+    return emptyList();
+  }
+
   default boolean isError() {
     return false;
   }
@@ -0,0 +1,203 @@
+package graphql.kickstart.execution.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.schema.GraphQLSchema;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@link PreparsedDocumentProvider} keeping parsed and validated documents in a bounded in-memory
+ * cache, so repeated queries skip parsing and validation. Entries are keyed on the query text and
+ * the identity of the schema they were validated against. Once either the number of entries or
+ * their total weight (the length of the cached query texts) exceeds the configured limit, entries
+ * not used recently are evicted. Eviction approximates least recently used order with the clock
+ * algorithm: entries wait in insertion order, and an entry used since it was last examined gets
+ * a second chance instead of being evicted, so evicting an entry takes constant amortized time.
+ *
+ * <p>A single instance can be shared between schemas: {@link GraphQLBuilder} binds it to the
+ * schema of every {@link graphql.GraphQL} instance it builds.
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  public static final long DEFAULT_MAX_WEIGHT = 16L * 1024 * 1024;
+
+  private final Map<Key, CachedDocument> documents = new ConcurrentHashMap<>();
+  private final Queue<CachedDocument> evictionQueue = new ConcurrentLinkedQueue<>();
+  private final Object evictionLock = new Object();
+  private final AtomicLong weight = new AtomicLong();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final int maxSize;
+  private final long maxWeight;
+
+  public CachingPreparsedDocumentProvider() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public CachingPreparsedDocumentProvider(int maxSize) {
+    this(maxSize, DEFAULT_MAX_WEIGHT);
+  }
+
+  /**
+   * @param maxSize maximum number of cached documents
+   * @param maxWeight maximum total number of query characters held by the cached documents
+   */
+  public CachingPreparsedDocumentProvider(int maxSize, long maxWeight) {
+    if (maxSize < 1 || maxWeight < 1) {
+      throw new IllegalArgumentException("Cache size and weight limits must be positive");
+    }
+    this.maxSize = maxSize;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @param schema schema the documents are validated against
+   * @return a view of this cache that keeps the documents of the given schema apart from others
+   */
+  public PreparsedDocumentProvider forSchema(GraphQLSchema schema) {
+    return (executionInput, parseAndValidateFunction) ->
+        getDocumentAsync(schema, executionInput, parseAndValidateFunction);
+  }
+
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    return getDocumentAsync(null, executionInput, parseAndValidateFunction);
+  }
+
+  private CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+      GraphQLSchema schema,
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    String query = executionInput.getQuery();
+    Key key = new Key(schema, query);
+    CachedDocument cached = documents.get(key);
+    if (cached != null) {
+      hitCount.increment();
+      if (!cached.used) {
+        cached.used = true;
+      }
+      return CompletableFuture.completedFuture(cached.entry);
+    }
+
+    missCount.increment();
+    PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+    long entryWeight = query.length();
+    if (entryWeight <= maxWeight) {
+      CachedDocument document = new CachedDocument(key, entry, entryWeight);
+      if (documents.putIfAbsent(key, document) == null) {
+        weight.addAndGet(entryWeight);
+        evictionQueue.add(document);
+        evictIfNecessary();
+      }
+    }
+    return CompletableFuture.completedFuture(entry);
+  }
+
+  private void evictIfNecessary() {
+    if (documents.size() <= maxSize && weight.get() <= maxWeight) {
+      return;
+    }
+    synchronized (evictionLock) {
+      while (documents.size() > maxSize || weight.get() > maxWeight) {
+        CachedDocument candidate = evictionQueue.poll();
+        if (candidate == null) {
+          return;
+        }
+        if (candidate.used && documents.get(candidate.key) == candidate) {
+          candidate.used = false;
+          evictionQueue.add(candidate);
+        } else if (documents.remove(candidate.key, candidate)) {
+          weight.addAndGet(-candidate.weight);
+          evictionCount.increment();
+        }
+      }
+    }
+  }
+
+  /** Discards all cached documents. Statistics are kept. */
+  public void clear() {
+    // every cached document is queued, documents cached meanwhile are queued after them
+    CachedDocument document;
+    while ((document = evictionQueue.poll()) != null) {
+      if (documents.remove(document.key, document)) {
+        weight.addAndGet(-document.weight);
+      }
+    }
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  /** @return total number of query characters held by the cached documents */
+  public long getWeight() {
+    return weight.get();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  private static class CachedDocument {
+
+    private final Key key;
+    private final PreparsedDocumentEntry entry;
+    private final long weight;
+    private volatile boolean used;
+
+    private CachedDocument(Key key, PreparsedDocumentEntry entry, long weight) {
+      this.key = key;
+      this.entry = entry;
+      this.weight = weight;
+    }
+  }
+
+  /** GraphQLSchema does not override equals, so schemas are compared by identity. */
+  private static class Key {
+
+    private final GraphQLSchema schema;
+    private final String query;
+
+    private Key(GraphQLSchema schema, String query) {
+      this.schema = schema;
+      this.query = query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return schema == other.schema && query.equals(other.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(schema) + query.hashCode();
+    }
+  }
+}
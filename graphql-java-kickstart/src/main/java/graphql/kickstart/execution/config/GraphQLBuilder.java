@@ -7,11 +7,18 @@ import graphql.execution.instrumentation.SimplePerformantInstrumentation;
 import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
 import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import lombok.Getter;
 
 public class GraphQLBuilder {
 
+  private static final int MAX_CACHED_SCHEMAS = 16;
+
+  private final Map<GraphQLSchema, GraphQL> graphQLCache = new ConcurrentHashMap<>();
+  private boolean cacheEnabled;
+
   private Supplier<ExecutionStrategyProvider> executionStrategyProviderSupplier =
       DefaultExecutionStrategyProvider::new;
   private Supplier<PreparsedDocumentProvider> preparsedDocumentProviderSupplier =
@@ -26,6 +33,7 @@ public class GraphQLBuilder {
   public GraphQLBuilder executionStrategyProvider(Supplier<ExecutionStrategyProvider> supplier) {
     if (supplier != null) {
       executionStrategyProviderSupplier = supplier;
+      invalidateCache();
     }
     return this;
   }
@@ -33,6 +41,7 @@ public class GraphQLBuilder {
   public GraphQLBuilder preparsedDocumentProvider(Supplier<PreparsedDocumentProvider> supplier) {
     if (supplier != null) {
       preparsedDocumentProviderSupplier = supplier;
+      invalidateCache();
     }
     return this;
   }
@@ -40,6 +49,7 @@ public class GraphQLBuilder {
   public GraphQLBuilder instrumentation(Supplier<Instrumentation> supplier) {
     if (supplier != null) {
       instrumentationSupplier = supplier;
+      invalidateCache();
     }
     return this;
   }
@@ -47,16 +57,49 @@ public class GraphQLBuilder {
   public GraphQLBuilder graphQLBuilderConfigurer(Supplier<GraphQLBuilderConfigurer> supplier) {
     if (supplier != null) {
       graphQLBuilderConfigurerSupplier = supplier;
+      invalidateCache();
     }
     return this;
   }
 
+  /**
+   * Enables or disables reuse of built {@link GraphQL} instances per schema instance. Caching is
+   * disabled by default, as the configured suppliers are invoked for every request and may return
+   * request specific instances, e.g. request specific instrumentation.
+   *
+   * @param enabled whether built {@link GraphQL} instances should be cached
+   * @return this builder
+   */
+  public GraphQLBuilder cacheGraphQL(boolean enabled) {
+    cacheEnabled = enabled;
+    invalidateCache();
+    return this;
+  }
+
+  /** Discards all cached {@link GraphQL} instances, forcing them to be rebuilt on next use. */
+  public void invalidateCache() {
+    graphQLCache.clear();
+  }
+
   public GraphQL build(GraphQLSchemaProvider schemaProvider) {
     return build(schemaProvider.getSchema());
   }
 
   public GraphQL build(GraphQLSchema schema) {
-    return build(schema, instrumentationSupplier);
+    if (!cacheEnabled) {
+      return build(schema, instrumentationSupplier);
+    }
+    // GraphQLSchema does not override equals, so entries are keyed by schema identity and a
+    // replaced schema simply stops being looked up. Clearing once the bound is reached keeps
+    // stale schemas from accumulating.
+    GraphQL graphQL = graphQLCache.get(schema);
+    if (graphQL == null) {
+      if (graphQLCache.size() >= MAX_CACHED_SCHEMAS) {
+        graphQLCache.clear();
+      }
+      graphQL = graphQLCache.computeIfAbsent(schema, it -> build(it, instrumentationSupplier));
+    }
+    return graphQL;
   }
 
   public GraphQL build(
@@ -69,9 +112,14 @@ public class GraphQLBuilder {
     ExecutionStrategy subscriptionExecutionStrategy =
         executionStrategyProvider.getSubscriptionExecutionStrategy();
 
+    PreparsedDocumentProvider preparsedDocumentProvider = preparsedDocumentProviderSupplier.get();
+    if (preparsedDocumentProvider instanceof CachingPreparsedDocumentProvider) {
+      preparsedDocumentProvider =
+          ((CachingPreparsedDocumentProvider) preparsedDocumentProvider).forSchema(schema);
+    }
+
     GraphQL.Builder builder =
-        GraphQL.newGraphQL(schema)
-            .preparsedDocumentProvider(preparsedDocumentProviderSupplier.get());
+        GraphQL.newGraphQL(schema).preparsedDocumentProvider(preparsedDocumentProvider);
 
     if (queryExecutionStrategy != null) {
       builder.queryExecutionStrategy(queryExecutionStrategy);
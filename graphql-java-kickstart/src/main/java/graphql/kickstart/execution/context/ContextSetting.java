@@ -18,7 +18,11 @@ public enum ContextSetting {
    * GraphQL executions in a http request.
    */
   PER_REQUEST,
-  /** Each GraphQL execution should always have its own context. */
+  /**
+   * Each GraphQL execution should always have its own context. Data loaders created from a shared
+   * {@link graphql.kickstart.execution.instrumentation.CrossRequestBatchLoader} still batch the
+   * loads of concurrent executions together.
+   */
   PER_QUERY;
 
   /**
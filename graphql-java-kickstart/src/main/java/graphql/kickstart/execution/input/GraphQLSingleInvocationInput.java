@@ -3,9 +3,11 @@ package graphql.kickstart.execution.input;
 import static java.util.Collections.singletonList;
 
 import graphql.ExecutionInput;
+import graphql.GraphQLError;
 import graphql.execution.ExecutionId;
 import graphql.kickstart.execution.GraphQLRequest;
 import graphql.kickstart.execution.context.GraphQLKickstartContext;
+import graphql.kickstart.execution.persisted.UnresolvedPersistedQuery;
 import graphql.schema.GraphQLSchema;
 import java.util.List;
 
@@ -16,10 +18,16 @@ public class GraphQLSingleInvocationInput implements GraphQLInvocationInput {
 
   private final ExecutionInput executionInput;
 
+  private final GraphQLError error;
+
   public GraphQLSingleInvocationInput(
       GraphQLRequest request, GraphQLSchema schema, GraphQLKickstartContext context, Object root) {
     this.schema = schema;
     this.executionInput = createExecutionInput(request, context, root);
+    this.error =
+        request instanceof UnresolvedPersistedQuery
+            ? ((UnresolvedPersistedQuery) request).getError()
+            : null;
   }
 
   /** @return the schema to use to execute this query. */
@@ -46,6 +54,11 @@ public class GraphQLSingleInvocationInput implements GraphQLInvocationInput {
     return executionInput;
   }
 
+  /** @return the error to answer with instead of executing this input, or {@code null} */
+  public GraphQLError getError() {
+    return error;
+  }
+
   @Override
   public List<String> getQueries() {
     return singletonList(executionInput.getQuery());
@@ -8,12 +8,18 @@ import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.kickstart.execution.instrumentation.RequestStack.CallStack;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.dataloader.DataLoaderRegistry;
 
-/** Handles logic common to tracking approaches. */
+/**
+ * Handles logic common to tracking approaches. The callbacks do not lock: the {@link RequestStack}
+ * counters are atomic, and the dispatch status is reset before the data loaders are dispatched, so
+ * an execution becoming ready while another thread dispatches is never lost. At worst two threads
+ * dispatch at the same time, which the data loaders allow.
+ */
 @Slf4j
 public abstract class AbstractTrackingApproach implements TrackingApproach {
 
@@ -38,10 +44,10 @@ public abstract class AbstractTrackingApproach implements TrackingApproach {
     int parentLevel = path.getLevel();
     int curLevel = parentLevel + 1;
     int fieldCount = parameters.getExecutionStrategyParameters().getFields().size();
-    synchronized (stack) {
-      stack.increaseExpectedFetchCount(executionId, curLevel, fieldCount);
-      stack.increaseHappenedStrategyCalls(executionId, curLevel);
-    }
+    CallStack callStack = stack.getCallStack(executionId, "can not begin execution strategy");
+    // the expected fetches must be visible before the strategy call is counted as happened
+    callStack.increaseExpectedFetchCount(curLevel, fieldCount);
+    callStack.increaseHappenedStrategyCalls(curLevel);
 
     return new ExecutionStrategyInstrumentationContext() {
       @Override
@@ -56,27 +62,15 @@ public abstract class AbstractTrackingApproach implements TrackingApproach {
 
       @Override
       public void onFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList) {
-        synchronized (stack) {
-          stack.setStatus(
-              executionId,
-              handleOnFieldValuesInfo(fieldValueInfoList, stack, executionId, curLevel));
-          if (stack.allReady()) {
-            dispatchWithoutLocking();
-          }
-        }
+        stack.setStatus(
+            callStack, handleOnFieldValuesInfo(fieldValueInfoList, callStack, curLevel));
+        dispatchIfAllReady();
       }
     };
   }
 
-  //
-  // thread safety : called with synchronised(stack)
-  //
   private boolean handleOnFieldValuesInfo(
-      List<FieldValueInfo> fieldValueInfoList,
-      RequestStack stack,
-      ExecutionId executionId,
-      int curLevel) {
-    stack.increaseHappenedOnFieldValueCalls(executionId, curLevel);
+      List<FieldValueInfo> fieldValueInfoList, CallStack callStack, int curLevel) {
     int expectedStrategyCalls = 0;
     for (FieldValueInfo fieldValueInfo : fieldValueInfoList) {
       if (fieldValueInfo.getCompleteValueType() == FieldValueInfo.CompleteValueType.OBJECT) {
@@ -85,8 +79,10 @@ public abstract class AbstractTrackingApproach implements TrackingApproach {
         expectedStrategyCalls += getCountForList(fieldValueInfo);
       }
     }
-    stack.increaseExpectedStrategyCalls(executionId, curLevel + 1, expectedStrategyCalls);
-    return dispatchIfNeeded(stack, executionId, curLevel + 1);
+    // the expected strategy calls must be visible before the field values call is counted
+    callStack.increaseExpectedStrategyCalls(curLevel + 1, expectedStrategyCalls);
+    callStack.increaseHappenedOnFieldValueCalls(curLevel);
+    return dispatchIfNeeded(callStack, curLevel + 1);
   }
 
   private int getCountForList(FieldValueInfo fieldValueInfo) {
@@ -107,18 +103,14 @@ public abstract class AbstractTrackingApproach implements TrackingApproach {
     ExecutionId executionId = parameters.getExecutionContext().getExecutionId();
     ResultPath path = parameters.getEnvironment().getExecutionStepInfo().getPath();
     int level = path.getLevel();
+    CallStack callStack = stack.getCallStack(executionId, "can not begin field fetch");
     return new InstrumentationContext<Object>() {
 
       @Override
       public void onDispatched() {
-        synchronized (stack) {
-          stack.increaseFetchCount(executionId, level);
-          stack.setStatus(executionId, dispatchIfNeeded(stack, executionId, level));
-
-          if (stack.allReady()) {
-            dispatchWithoutLocking();
-          }
-        }
+        callStack.increaseFetchCount(level);
+        stack.setStatus(callStack, dispatchIfNeeded(callStack, level));
+        dispatchIfAllReady();
       }
 
       @Override
@@ -130,48 +122,38 @@ public abstract class AbstractTrackingApproach implements TrackingApproach {
 
   @Override
   public void removeTracking(ExecutionId executionId) {
-    synchronized (stack) {
-      stack.removeExecution(executionId);
-      if (stack.allReady()) {
-        dispatchWithoutLocking();
-      }
-    }
+    stack.removeExecution(executionId);
+    dispatchIfAllReady();
   }
 
-  //
-  // thread safety : called with synchronised(stack)
-  //
-  private boolean dispatchIfNeeded(RequestStack stack, ExecutionId executionId, int level) {
-    if (levelReady(stack, executionId, level)) {
-      return stack.dispatchIfNotDispatchedBefore(executionId, level);
+  private boolean dispatchIfNeeded(CallStack callStack, int level) {
+    if (levelReady(callStack, level)) {
+      return callStack.dispatchIfNotDispatchedBefore(level);
     }
     return false;
   }
 
-  //
-  // thread safety : called with synchronised(stack)
-  //
-  private boolean levelReady(RequestStack stack, ExecutionId executionId, int level) {
+  private boolean levelReady(CallStack callStack, int level) {
     if (level == 1) {
       // level 1 is special: there is only one strategy call and that's it
-      return stack.allFetchesHappened(executionId, 1);
+      return callStack.allFetchesHappened(1);
     }
-    return (levelReady(stack, executionId, level - 1)
-        && stack.allOnFieldCallsHappened(executionId, level - 1)
-        && stack.allStrategyCallsHappened(executionId, level)
-        && stack.allFetchesHappened(executionId, level));
+    return (levelReady(callStack, level - 1)
+        && callStack.allOnFieldCallsHappened(level - 1)
+        && callStack.allStrategyCallsHappened(level)
+        && callStack.allFetchesHappened(level));
   }
 
   @Override
   public void dispatch() {
-    synchronized (stack) {
-      dispatchWithoutLocking();
-    }
-  }
-
-  private void dispatchWithoutLocking() {
+    stack.allReset();
     log.debug("Dispatching data loaders ({})", dataLoaderRegistry.getKeys());
     dataLoaderRegistry.dispatchAll();
-    stack.allReset();
+  }
+
+  private void dispatchIfAllReady() {
+    if (stack.allReady()) {
+      dispatch();
+    }
   }
 }
@@ -0,0 +1,197 @@
+package graphql.kickstart.execution.instrumentation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.BatchLoader;
+
+/**
+ * {@link BatchLoader} that coalesces the batches of concurrent executions. With {@link
+ * graphql.kickstart.execution.context.ContextSetting#PER_QUERY} every execution dispatches its own
+ * data loaders, so parallel queries each call the backend with their own keys. Registering data
+ * loaders created from one shared instance of this class in every execution's registry holds each
+ * dispatched batch for a short window, or until enough keys are pending, and then loads the
+ * distinct keys of all pending batches with a single call to the delegate.
+ *
+ * <p>Every execution keeps its own data loader and cache, and gets back only the values of its own
+ * keys. Keys are matched with {@link Object#equals(Object)}. The delegate is called on the given
+ * executor, the common pool by default, so a slow backend call does not hold up the window timer or
+ * the execution that filled the batch.
+ */
+@Slf4j
+public class CrossRequestBatchLoader<K, V> implements BatchLoader<K, V> {
+
+  public static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+  public static final int DEFAULT_MAX_BATCH_SIZE = 200;
+
+  private final BatchLoader<K, V> delegate;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final Executor executor;
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final Object lock = new Object();
+  private List<PendingBatch<K, V>> pending = new ArrayList<>();
+  private int pendingKeys;
+  private ScheduledFuture<?> scheduledFlush;
+
+  public CrossRequestBatchLoader(BatchLoader<K, V> delegate) {
+    this(delegate, DEFAULT_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * @param delegate batch loader calling the backend
+   * @param window longest time a batch waits for batches of other executions
+   * @param maxBatchSize number of pending keys that loads the pending batches right away
+   */
+  public CrossRequestBatchLoader(BatchLoader<K, V> delegate, Duration window, int maxBatchSize) {
+    this(delegate, window, maxBatchSize, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param delegate batch loader calling the backend
+   * @param window longest time a batch waits for batches of other executions
+   * @param maxBatchSize number of pending keys that loads the pending batches right away
+   * @param executor calls the delegate with the keys of the pending batches
+   */
+  public CrossRequestBatchLoader(
+      BatchLoader<K, V> delegate, Duration window, int maxBatchSize, Executor executor) {
+    if (window.isNegative() || window.isZero() || maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch window and size must be positive");
+    }
+    this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+    this.windowNanos = window.toNanos();
+    this.maxBatchSize = maxBatchSize;
+    this.executor = Objects.requireNonNull(executor, "executor is required");
+    this.scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "graphql-batch-window");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  public CompletionStage<List<V>> load(List<K> keys) {
+    PendingBatch<K, V> batch = new PendingBatch<>(keys);
+    List<PendingBatch<K, V>> ready = null;
+    synchronized (lock) {
+      pending.add(batch);
+      pendingKeys += keys.size();
+      if (pendingKeys >= maxBatchSize) {
+        ready = takePending();
+      } else if (scheduledFlush == null) {
+        scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    if (ready != null) {
+      submit(ready);
+    }
+    return batch.result;
+  }
+
+  /** Loads all pending batches right away. */
+  public void flush() {
+    List<PendingBatch<K, V>> ready;
+    synchronized (lock) {
+      ready = takePending();
+    }
+    if (!ready.isEmpty()) {
+      submit(ready);
+    }
+  }
+
+  private List<PendingBatch<K, V>> takePending() {
+    List<PendingBatch<K, V>> ready = pending;
+    pending = new ArrayList<>();
+    pendingKeys = 0;
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    return ready;
+  }
+
+  private void submit(List<PendingBatch<K, V>> batches) {
+    try {
+      executor.execute(() -> loadBatches(batches));
+    } catch (RejectedExecutionException e) {
+      loadBatches(batches);
+    }
+  }
+
+  private void loadBatches(List<PendingBatch<K, V>> batches) {
+    Map<K, Integer> positions = new LinkedHashMap<>();
+    for (PendingBatch<K, V> batch : batches) {
+      for (K key : batch.keys) {
+        positions.putIfAbsent(key, positions.size());
+      }
+    }
+    List<K> keys = new ArrayList<>(positions.keySet());
+    log.debug("Loading {} keys for {} batches", keys.size(), batches.size());
+
+    CompletionStage<List<V>> values;
+    try {
+      values = delegate.load(keys);
+    } catch (Exception e) {
+      batches.forEach(batch -> batch.result.completeExceptionally(e));
+      return;
+    }
+    values.whenComplete(
+        (result, error) -> {
+          Throwable failure = error;
+          if (failure == null && (result == null || result.size() != keys.size())) {
+            failure =
+                new IllegalStateException(
+                    String.format(
+                        "Batch loader returned %s values for %d keys",
+                        result == null ? null : result.size(), keys.size()));
+          }
+          for (PendingBatch<K, V> batch : batches) {
+            if (failure != null) {
+              batch.result.completeExceptionally(failure);
+            } else {
+              batch.complete(positions, result);
+            }
+          }
+        });
+  }
+
+  /** Loads the pending batches and stops the window timer. */
+  public void shutdown() {
+    flush();
+    scheduler.shutdown();
+  }
+
+  private static class PendingBatch<K, V> {
+
+    private final List<K> keys;
+    private final CompletableFuture<List<V>> result = new CompletableFuture<>();
+
+    private PendingBatch(List<K> keys) {
+      this.keys = keys;
+    }
+
+    private void complete(Map<K, Integer> positions, List<V> values) {
+      List<V> own = new ArrayList<>(keys.size());
+      for (K key : keys) {
+        own.add(values.get(positions.get(key)));
+      }
+      result.complete(own);
+    }
+  }
+}
@@ -18,13 +18,10 @@ public class FieldLevelTrackingApproach extends AbstractTrackingApproach {
   }
 
   public InstrumentationState createState(ExecutionId executionId) {
-    synchronized (getStack()) {
-      if (getStack().contains(executionId)) {
-        throw new TrackingApproachException(
-            String.format("Execution id %s already in active execution", executionId));
-      }
-      getStack().addExecution(executionId);
-      return null;
+    if (!getStack().addExecutionIfAbsent(executionId)) {
+      throw new TrackingApproachException(
+          String.format("Execution id %s already in active execution", executionId));
     }
+    return null;
   }
 }
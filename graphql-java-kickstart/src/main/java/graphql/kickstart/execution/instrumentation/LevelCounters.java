@@ -0,0 +1,116 @@
+package graphql.kickstart.execution.instrumentation;
+
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Growable array of atomic {@code int} counters indexed by level. The counters live in fixed size
+ * segments that are never copied, so growing only copies the segment references and never loses a
+ * concurrent update. Counters hold their value plus one, which tells a level that was never
+ * increased apart from a level increased by zero.
+ */
+class LevelCounters {
+
+  private static final int SEGMENT_SHIFT = 4;
+  private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final AtomicReference<AtomicIntegerArray[]> segments =
+      new AtomicReference<>(new AtomicIntegerArray[] {new AtomicIntegerArray(SEGMENT_SIZE)});
+
+  /** Adds to the counter of a level, marking the level as increased even if count is zero. */
+  void add(int level, int count) {
+    AtomicIntegerArray segment = segment(level);
+    int index = level & SEGMENT_MASK;
+    int current;
+    do {
+      current = segment.get(index);
+    } while (!segment.compareAndSet(index, current, Math.max(current, 1) + count));
+  }
+
+  /** Sets the counter of a level. */
+  void set(int level, int count) {
+    segment(level).set(level & SEGMENT_MASK, count + 1);
+  }
+
+  /**
+   * Marks a level once.
+   *
+   * @return if the level was not marked before
+   */
+  boolean mark(int level) {
+    return segment(level).compareAndSet(level & SEGMENT_MASK, 0, 1);
+  }
+
+  /** @return if both counters of a level hold the same value, or were both never increased */
+  boolean sameAt(LevelCounters other, int level) {
+    return raw(level) == other.raw(level);
+  }
+
+  /** @return if all levels of both counters hold the same values */
+  boolean sameAs(LevelCounters other) {
+    AtomicIntegerArray[] mine = segments.get();
+    AtomicIntegerArray[] theirs = other.segments.get();
+    int length = Math.max(mine.length, theirs.length);
+    for (int s = 0; s < length; s++) {
+      AtomicIntegerArray left = s < mine.length ? mine[s] : null;
+      AtomicIntegerArray right = s < theirs.length ? theirs[s] : null;
+      for (int i = 0; i < SEGMENT_SIZE; i++) {
+        if (valueAt(left, i) != valueAt(right, i)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Resets all levels to never increased. Not thread-safe: updates made concurrently may land in
+   * the counters being dropped and be lost.
+   */
+  void clear() {
+    segments.set(new AtomicIntegerArray[] {new AtomicIntegerArray(SEGMENT_SIZE)});
+  }
+
+  private int raw(int level) {
+    AtomicIntegerArray[] current = segments.get();
+    int segment = level >>> SEGMENT_SHIFT;
+    return segment < current.length ? valueAt(current[segment], level & SEGMENT_MASK) : 0;
+  }
+
+  private static int valueAt(AtomicIntegerArray segment, int index) {
+    return segment == null ? 0 : segment.get(index);
+  }
+
+  private AtomicIntegerArray segment(int level) {
+    int index = level >>> SEGMENT_SHIFT;
+    while (true) {
+      AtomicIntegerArray[] current = segments.get();
+      if (index < current.length && current[index] != null) {
+        return current[index];
+      }
+      AtomicIntegerArray[] grown = new AtomicIntegerArray[Math.max(index + 1, current.length)];
+      System.arraycopy(current, 0, grown, 0, current.length);
+      grown[index] = new AtomicIntegerArray(SEGMENT_SIZE);
+      if (segments.compareAndSet(current, grown)) {
+        return grown[index];
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner joiner = new StringJoiner(", ", "{", "}");
+    AtomicIntegerArray[] current = segments.get();
+    for (int s = 0; s < current.length; s++) {
+      for (int i = 0; i < SEGMENT_SIZE; i++) {
+        int value = valueAt(current[s], i);
+        if (value != 0) {
+          joiner.add(((s << SEGMENT_SHIFT) + i) + "=" + (value - 1));
+        }
+      }
+    }
+    return joiner.toString();
+  }
+}
@@ -1,19 +1,29 @@
 package graphql.kickstart.execution.instrumentation;
 
-import graphql.Assert;
 import graphql.execution.ExecutionId;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-
-/** Manages sets of call stack state for ongoing executions. */
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manages sets of call stack state for ongoing executions. All methods can be called concurrently
+ * without locking: the counters of every execution are atomic, and the number of executions that
+ * are not ready to dispatch is kept up to date as their status changes, so {@link #allReady()} does
+ * not have to look at every execution's status.
+ *
+ * <p>Per level counters are kept in primitive arrays indexed by level. Tracking approaches look up
+ * the {@link CallStack} of an execution once per callback and pass it around, rather than hashing
+ * the execution id for every counter they read.
+ */
 public class RequestStack {
 
-  private final Map<ExecutionId, CallStack> activeRequests = new LinkedHashMap<>();
+  private static final int NOT_READY = 0;
+  private static final int READY = 1;
+  private static final int REMOVED = 2;
+
+  private final Map<ExecutionId, CallStack> activeRequests = new ConcurrentHashMap<>();
 
-  private final Map<ExecutionId, Boolean> status = new LinkedHashMap<>();
+  private final AtomicInteger notReadyCount = new AtomicInteger();
 
   /**
    * Sets the status indicating if a specific execution is ready for dispatching.
@@ -22,27 +32,45 @@ public class RequestStack {
    * @param toState if ready to dispatch
    */
   public void setStatus(ExecutionId executionId, boolean toState) {
-    if (!activeRequests.containsKey(executionId)) {
+    CallStack callStack = activeRequests.get(executionId);
+    if (callStack == null) {
       throw new IllegalStateException(
           String.format(
               "Can not set status for execution %s, it is not managed by this request stack",
               executionId));
     }
-    if (toState) {
-      status.put(executionId, true);
+    setStatus(callStack, toState);
+  }
+
+  void setStatus(CallStack callStack, boolean toState) {
+    if (toState && callStack.status.compareAndSet(NOT_READY, READY)) {
+      notReadyCount.decrementAndGet();
     }
   }
 
   /** @return if all managed executions are ready to be dispatched. */
   public boolean allReady() {
-    return status.values().stream().noneMatch(Boolean.FALSE::equals)
-        && activeRequests.values().stream().map(CallStack::getDispatchedLevels).distinct().count()
-            <= 1;
+    if (notReadyCount.get() > 0) {
+      return false;
+    }
+    CallStack first = null;
+    for (CallStack callStack : activeRequests.values()) {
+      if (first == null) {
+        first = callStack;
+      } else if (!first.sameDispatchedLevels(callStack)) {
+        return false;
+      }
+    }
+    return true;
   }
 
-  /** Removes all dispatch status. Should be used after a call to dispatch. */
+  /** Removes all dispatch status. Should be used before a call to dispatch. */
   public void allReset() {
-    status.keySet().forEach(key -> status.put(key, false));
+    for (CallStack callStack : activeRequests.values()) {
+      if (callStack.status.compareAndSet(READY, NOT_READY)) {
+        notReadyCount.incrementAndGet();
+      }
+    }
   }
 
   /**
@@ -61,8 +89,10 @@ public class RequestStack {
    * @param executionId no restrictions
    */
   public void removeExecution(ExecutionId executionId) {
-    activeRequests.remove(executionId);
-    status.remove(executionId);
+    CallStack callStack = activeRequests.remove(executionId);
+    if (callStack != null && callStack.status.getAndSet(REMOVED) == NOT_READY) {
+      notReadyCount.decrementAndGet();
+    }
   }
 
   /**
@@ -71,13 +101,26 @@ public class RequestStack {
    * @param executionId can not already be managed by this RequestStack
    */
   public void addExecution(ExecutionId executionId) {
-    if (activeRequests.containsKey(executionId)) {
+    if (!addExecutionIfAbsent(executionId)) {
       throw new IllegalStateException(
           String.format("An execution already exists for %s, can not create one", executionId));
     }
-    CallStack callStack = new CallStack();
-    status.put(executionId, false);
-    activeRequests.put(executionId, callStack);
+  }
+
+  /**
+   * Creates a call stack for an associated id, unless one already exists.
+   *
+   * @param executionId no restrictions
+   * @return if a call stack was created
+   */
+  public boolean addExecutionIfAbsent(ExecutionId executionId) {
+    // counted as not ready before it is published, so allReady() never sees it uncounted
+    notReadyCount.incrementAndGet();
+    if (activeRequests.putIfAbsent(executionId, new CallStack()) != null) {
+      notReadyCount.decrementAndGet();
+      return false;
+    }
+    return true;
   }
 
   /**
@@ -88,13 +131,8 @@ public class RequestStack {
    * @param fieldCount the amount to increase the expected amount
    */
   public void increaseExpectedFetchCount(ExecutionId executionId, int curLevel, int fieldCount) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not increase expected fetch count",
-              executionId));
-    }
-    activeRequests.get(executionId).increaseExpectedFetchCount(curLevel, fieldCount);
+    getCallStack(executionId, "can not increase expected fetch count")
+        .increaseExpectedFetchCount(curLevel, fieldCount);
   }
 
   /**
@@ -104,13 +142,8 @@ public class RequestStack {
    * @param curLevel level to increment
    */
   public void increaseHappenedStrategyCalls(ExecutionId executionId, int curLevel) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not increase happened happened strategy calls",
-              executionId));
-    }
-    activeRequests.get(executionId).increaseHappenedStrategyCalls(curLevel);
+    getCallStack(executionId, "can not increase happened happened strategy calls")
+        .increaseHappenedStrategyCalls(curLevel);
   }
 
   /**
@@ -120,13 +153,8 @@ public class RequestStack {
    * @param curLevel level to increment
    */
   public void increaseHappenedOnFieldValueCalls(ExecutionId executionId, int curLevel) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not increase happened on field calls",
-              executionId));
-    }
-    activeRequests.get(executionId).increaseHappenedOnFieldValueCalls(curLevel);
+    getCallStack(executionId, "can not increase happened on field calls")
+        .increaseHappenedOnFieldValueCalls(curLevel);
   }
 
   /**
@@ -138,13 +166,8 @@ public class RequestStack {
    */
   public void increaseExpectedStrategyCalls(
       ExecutionId executionId, int curLevel, int expectedStrategyCalls) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not increase expected strategy calls",
-              executionId));
-    }
-    activeRequests.get(executionId).increaseExpectedStrategyCalls(curLevel, expectedStrategyCalls);
+    getCallStack(executionId, "can not increase expected strategy calls")
+        .increaseExpectedStrategyCalls(curLevel, expectedStrategyCalls);
   }
 
   /**
@@ -155,13 +178,8 @@ public class RequestStack {
    * @return allFetchesHappened
    */
   public boolean allFetchesHappened(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not get all fetches happened value",
-              executionId));
-    }
-    return activeRequests.get(executionId).allFetchesHappened(level);
+    return getCallStack(executionId, "can not get all fetches happened value")
+        .allFetchesHappened(level);
   }
 
   /**
@@ -172,13 +190,8 @@ public class RequestStack {
    * @return allOnFieldCallsHappened
    */
   public boolean allOnFieldCallsHappened(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not get all on field calls happened value",
-              executionId));
-    }
-    return activeRequests.get(executionId).allOnFieldCallsHappened(level);
+    return getCallStack(executionId, "can not get all on field calls happened value")
+        .allOnFieldCallsHappened(level);
   }
 
   /**
@@ -189,13 +202,8 @@ public class RequestStack {
    * @return allStrategyCallsHappened
    */
   public boolean allStrategyCallsHappened(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not get all strategy calls happened value",
-              executionId));
-    }
-    return activeRequests.get(executionId).allStrategyCallsHappened(level);
+    return getCallStack(executionId, "can not get all strategy calls happened value")
+        .allStrategyCallsHappened(level);
   }
 
   /**
@@ -206,13 +214,8 @@ public class RequestStack {
    * @return dispatchIfNotDispattchedBefore
    */
   public boolean dispatchIfNotDispatchedBefore(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not get dispatch if not dispatched before value",
-              executionId));
-    }
-    return activeRequests.get(executionId).dispatchIfNotDispatchedBefore(level);
+    return getCallStack(executionId, "can not get dispatch if not dispatched before value")
+        .dispatchIfNotDispatchedBefore(level);
   }
 
   /**
@@ -222,85 +225,87 @@ public class RequestStack {
    * @param level the level to increment
    */
   public void increaseFetchCount(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
-      throw new IllegalStateException(
-          String.format(
-              "Execution %s not managed by this RequestStack, can not increase fetch count",
-              executionId));
-    }
-    activeRequests.get(executionId).increaseFetchCount(level);
+    getCallStack(executionId, "can not increase fetch count").increaseFetchCount(level);
   }
 
   /**
-   * Clear and mark current level as ready for an execution.
+   * Clear and mark current level as ready for an execution. Unlike the other methods, this one is
+   * not thread-safe: it replaces the counters of the execution, so updates made concurrently by
+   * other threads can be lost. Only call it while no other thread tracks the execution.
    *
    * @param executionId must be managed by this RequestStack
    * @param level the level to clear and mark
    */
   public void clearAndMarkCurrentLevelAsReady(ExecutionId executionId, int level) {
-    if (!activeRequests.containsKey(executionId)) {
+    getCallStack(executionId, "can not clea and mark current level as ready")
+        .clearAndMarkCurrentLevelAsReady(level);
+  }
+
+  CallStack getCallStack(ExecutionId executionId, String action) {
+    CallStack callStack = activeRequests.get(executionId);
+    if (callStack == null) {
       throw new IllegalStateException(
           String.format(
-              "Execution %s not managed by this RequestStack, can not clea and mark current level as ready",
-              executionId));
+              "Execution %s not managed by this RequestStack, %s", executionId, action));
     }
-    activeRequests.get(executionId).clearAndMarkCurrentLevelAsReady(level);
+    return callStack;
   }
 
-  private static class CallStack {
+  /**
+   * Counters of a single execution. A level's counter is absent until it is first increased, and
+   * an absent counter only equals another absent counter, as levels without any call are never
+   * ready.
+   */
+  static final class CallStack {
 
-    private final Map<Integer, Integer> expectedFetchCountPerLevel = new LinkedHashMap<>();
-    private final Map<Integer, Integer> fetchCountPerLevel = new LinkedHashMap<>();
-    private final Map<Integer, Integer> expectedStrategyCallsPerLevel = new LinkedHashMap<>();
-    private final Map<Integer, Integer> happenedStrategyCallsPerLevel = new LinkedHashMap<>();
-    private final Map<Integer, Integer> happenedOnFieldValueCallsPerLevel = new LinkedHashMap<>();
+    private final AtomicInteger status = new AtomicInteger(NOT_READY);
 
-    private final List<Integer> dispatchedLevels = new ArrayList<>();
+    private final LevelCounters expectedFetchCountPerLevel = new LevelCounters();
+    private final LevelCounters fetchCountPerLevel = new LevelCounters();
+    private final LevelCounters expectedStrategyCallsPerLevel = new LevelCounters();
+    private final LevelCounters happenedStrategyCallsPerLevel = new LevelCounters();
+    private final LevelCounters happenedOnFieldValueCallsPerLevel = new LevelCounters();
+
+    private final LevelCounters dispatchedLevels = new LevelCounters();
 
     private CallStack() {
-      expectedStrategyCallsPerLevel.put(1, 1);
+      expectedStrategyCallsPerLevel.set(1, 1);
     }
 
-    private void increaseExpectedFetchCount(int level, int count) {
-      expectedFetchCountPerLevel.put(
-          level, expectedFetchCountPerLevel.getOrDefault(level, 0) + count);
+    void increaseExpectedFetchCount(int level, int count) {
+      expectedFetchCountPerLevel.add(level, count);
     }
 
-    private void increaseFetchCount(int level) {
-      fetchCountPerLevel.put(level, fetchCountPerLevel.getOrDefault(level, 0) + 1);
+    void increaseFetchCount(int level) {
+      fetchCountPerLevel.add(level, 1);
     }
 
-    private void increaseExpectedStrategyCalls(int level, int count) {
-      expectedStrategyCallsPerLevel.put(
-          level, expectedStrategyCallsPerLevel.getOrDefault(level, 0) + count);
+    void increaseExpectedStrategyCalls(int level, int count) {
+      expectedStrategyCallsPerLevel.add(level, count);
     }
 
-    private void increaseHappenedStrategyCalls(int level) {
-      happenedStrategyCallsPerLevel.put(
-          level, happenedStrategyCallsPerLevel.getOrDefault(level, 0) + 1);
+    void increaseHappenedStrategyCalls(int level) {
+      happenedStrategyCallsPerLevel.add(level, 1);
     }
 
-    private void increaseHappenedOnFieldValueCalls(int level) {
-      happenedOnFieldValueCallsPerLevel.put(
-          level, happenedOnFieldValueCallsPerLevel.getOrDefault(level, 0) + 1);
+    void increaseHappenedOnFieldValueCalls(int level) {
+      happenedOnFieldValueCallsPerLevel.add(level, 1);
     }
 
-    private boolean allStrategyCallsHappened(int level) {
-      return Objects.equals(
-          happenedStrategyCallsPerLevel.get(level), expectedStrategyCallsPerLevel.get(level));
+    boolean allStrategyCallsHappened(int level) {
+      return happenedStrategyCallsPerLevel.sameAt(expectedStrategyCallsPerLevel, level);
     }
 
-    private boolean allOnFieldCallsHappened(int level) {
-      return Objects.equals(
-          happenedOnFieldValueCallsPerLevel.get(level), expectedStrategyCallsPerLevel.get(level));
+    boolean allOnFieldCallsHappened(int level) {
+      return happenedOnFieldValueCallsPerLevel.sameAt(expectedStrategyCallsPerLevel, level);
     }
 
-    private boolean allFetchesHappened(int level) {
-      return Objects.equals(fetchCountPerLevel.get(level), expectedFetchCountPerLevel.get(level));
+    boolean allFetchesHappened(int level) {
+      return fetchCountPerLevel.sameAt(expectedFetchCountPerLevel, level);
     }
 
-    private List<Integer> getDispatchedLevels() {
-      return dispatchedLevels;
+    private boolean sameDispatchedLevels(CallStack other) {
+      return dispatchedLevels.sameAs(other.dispatchedLevels);
     }
 
     @Override
@@ -321,15 +326,15 @@ public class RequestStack {
           + '}';
     }
 
-    private boolean dispatchIfNotDispatchedBefore(int level) {
-      if (dispatchedLevels.contains(level)) {
-        Assert.assertShouldNeverHappen("level " + level + " already dispatched");
-        return false;
-      }
-      dispatchedLevels.add(level);
-      return true;
+    /**
+     * Two threads can find the same level ready at the same time, only the first one gets to
+     * dispatch it.
+     */
+    boolean dispatchIfNotDispatchedBefore(int level) {
+      return dispatchedLevels.mark(level);
     }
 
+    /** Not thread-safe, concurrent updates to the cleared counters can be lost. */
     private void clearAndMarkCurrentLevelAsReady(int level) {
       expectedFetchCountPerLevel.clear();
       fetchCountPerLevel.clear();
@@ -339,9 +344,9 @@ public class RequestStack {
       dispatchedLevels.clear();
 
       // make sure the level is ready
-      expectedFetchCountPerLevel.put(level, 1);
-      expectedStrategyCallsPerLevel.put(level, 1);
-      happenedStrategyCallsPerLevel.put(level, 1);
+      expectedFetchCountPerLevel.set(level, 1);
+      expectedStrategyCallsPerLevel.set(level, 1);
+      happenedStrategyCallsPerLevel.set(level, 1);
     }
   }
 }
@@ -0,0 +1,38 @@
+package graphql.kickstart.execution.persisted;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** {@link PersistedQueryStore} keeping the least recently used queries in memory. */
+public class InMemoryPersistedQueryStore implements PersistedQueryStore {
+
+  private static final int DEFAULT_MAX_SIZE = 1000;
+
+  private final Map<String, String> queries;
+
+  public InMemoryPersistedQueryStore() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public InMemoryPersistedQueryStore(int maxSize) {
+    this.queries =
+        Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+              }
+            });
+  }
+
+  @Override
+  public String get(String sha256Hash) {
+    return queries.get(sha256Hash);
+  }
+
+  @Override
+  public void put(String sha256Hash, String query) {
+    queries.put(sha256Hash, query);
+  }
+}
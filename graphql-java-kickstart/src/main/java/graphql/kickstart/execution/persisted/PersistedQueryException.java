@@ -0,0 +1,32 @@
+package graphql.kickstart.execution.persisted;
+
+import static java.util.Collections.singletonMap;
+
+import graphql.ErrorClassification;
+import graphql.GraphqlErrorException;
+
+/**
+ * Raised when a persisted query cannot be resolved. It is a {@link graphql.GraphQLError} so it can
+ * be returned to the client, which then retries with the full query text.
+ */
+public class PersistedQueryException extends GraphqlErrorException {
+
+  private static final long serialVersionUID = -2431562198474513718L;
+
+  private PersistedQueryException(String message, String code) {
+    super(
+        newErrorException()
+            .message(message)
+            .errorClassification(ErrorClassification.errorClassification(code))
+            .extensions(singletonMap("code", code)));
+  }
+
+  static PersistedQueryException notFound() {
+    return new PersistedQueryException("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+  }
+
+  static PersistedQueryException hashMismatch() {
+    return new PersistedQueryException(
+        "provided sha does not match query", "PERSISTED_QUERY_HASH_MISMATCH");
+  }
+}
@@ -0,0 +1,98 @@
+package graphql.kickstart.execution.persisted;
+
+import graphql.kickstart.execution.GraphQLRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implements automatic persisted queries: requests carrying an {@code
+ * extensions.persistedQuery.sha256Hash} either register their query under that hash or, when the
+ * query is omitted, get it filled in from the {@link PersistedQueryStore}.
+ */
+@RequiredArgsConstructor
+public class PersistedQueryResolver {
+
+  private static final String PERSISTED_QUERY = "persistedQuery";
+  private static final String SHA_256_HASH = "sha256Hash";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final PersistedQueryStore store;
+
+  /**
+   * @param request the request to resolve
+   * @return the same request, with its query filled in if it referenced a persisted query
+   * @throws PersistedQueryException if the query is unknown or does not match its hash
+   */
+  public GraphQLRequest resolve(GraphQLRequest request) {
+    String hash = getHash(request.getExtensions());
+    if (hash == null) {
+      return request;
+    }
+
+    if (request.getQuery() != null && !request.getQuery().isEmpty()) {
+      if (!hash.equalsIgnoreCase(sha256(request.getQuery()))) {
+        throw PersistedQueryException.hashMismatch();
+      }
+      store.put(hash, request.getQuery());
+      return request;
+    }
+
+    String query = store.get(hash);
+    if (query == null) {
+      throw PersistedQueryException.notFound();
+    }
+    request.setQuery(query);
+    return request;
+  }
+
+  /**
+   * Resolves the entries of a batch independently, so an entry referencing an unknown query does
+   * not fail the whole batch.
+   *
+   * @param requests the entries of a batch
+   * @return the resolved entries, with entries that cannot be resolved replaced by an {@link
+   *     UnresolvedPersistedQuery}
+   */
+  public List<GraphQLRequest> resolveEach(List<GraphQLRequest> requests) {
+    List<GraphQLRequest> resolved = new ArrayList<>(requests.size());
+    for (GraphQLRequest request : requests) {
+      try {
+        resolved.add(resolve(request));
+      } catch (PersistedQueryException e) {
+        resolved.add(new UnresolvedPersistedQuery(request, e));
+      }
+    }
+    return resolved;
+  }
+
+  private String getHash(Map<String, Object> extensions) {
+    Object persistedQuery = extensions != null ? extensions.get(PERSISTED_QUERY) : null;
+    if (persistedQuery instanceof Map) {
+      Object hash = ((Map<?, ?>) persistedQuery).get(SHA_256_HASH);
+      if (hash instanceof String) {
+        return (String) hash;
+      }
+    }
+    return null;
+  }
+
+  private static String sha256(String query) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+      char[] hex = new char[digest.length * 2];
+      for (int i = 0; i < digest.length; i++) {
+        hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+        hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+      }
+      return new String(hex);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package graphql.kickstart.execution.persisted;
+
+/**
+ * Storage for automatic persisted queries, mapping the SHA-256 hash of a query to its text.
+ * Implementations can be backed by an external store shared between instances.
+ */
+public interface PersistedQueryStore {
+
+  /**
+   * @param sha256Hash hex encoded SHA-256 hash of the query
+   * @return the query registered for the hash or {@code null} if it is unknown
+   */
+  String get(String sha256Hash);
+
+  /**
+   * Registers a query. The hash has already been verified to match the query.
+   *
+   * @param sha256Hash hex encoded SHA-256 hash of the query
+   * @param query the query text
+   */
+  void put(String sha256Hash, String query);
+}
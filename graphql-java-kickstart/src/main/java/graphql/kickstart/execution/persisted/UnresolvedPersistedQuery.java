@@ -0,0 +1,21 @@
+package graphql.kickstart.execution.persisted;
+
+import graphql.kickstart.execution.GraphQLRequest;
+
+/**
+ * Entry of a batch referencing a persisted query that cannot be resolved. It is answered with its
+ * error instead of being executed, while the other entries of the batch execute as usual.
+ */
+public class UnresolvedPersistedQuery extends GraphQLRequest {
+
+  private final PersistedQueryException error;
+
+  UnresolvedPersistedQuery(GraphQLRequest request, PersistedQueryException error) {
+    super("", request.getVariables(), request.getExtensions(), request.getOperationName());
+    this.error = error;
+  }
+
+  public PersistedQueryException getError() {
+    return error;
+  }
+}
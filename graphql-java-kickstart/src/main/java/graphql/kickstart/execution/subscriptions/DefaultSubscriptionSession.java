@@ -18,13 +18,25 @@ public class DefaultSubscriptionSession implements SubscriptionSession {
   @Getter private final GraphQLSubscriptionMapper mapper;
   private SingleSubscriberPublisher<String> publisher = new SingleSubscriberPublisher<>();
   private SessionSubscriptions subscriptions = new SessionSubscriptions();
+  private volatile long lastSendNanoTime = System.nanoTime();
 
   @Override
   public void send(String message) {
     Objects.requireNonNull(message, "message is required");
+    markSent();
     publisher.offer(message);
   }
 
+  /** Records that a message was sent, so keep-alives can skip sessions that are not idle. */
+  protected void markSent() {
+    lastSendNanoTime = System.nanoTime();
+  }
+
+  /** @return {@link System#nanoTime()} at which the last message was sent */
+  public long getLastSendNanoTime() {
+    return lastSendNanoTime;
+  }
+
   @Override
   public void sendMessage(Object payload) {
     Objects.requireNonNull(payload, "payload is required");
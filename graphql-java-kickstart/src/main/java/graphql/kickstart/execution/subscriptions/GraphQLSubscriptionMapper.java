@@ -40,6 +40,11 @@ public class GraphQLSubscriptionMapper {
     return graphQLObjectMapper.convertSanitizedExecutionResult(executionResult, false);
   }
 
+  public Map<String, Object> convertSanitizedExecutionResult(
+      ExecutionResult executionResult, boolean includeData) {
+    return graphQLObjectMapper.convertSanitizedExecutionResult(executionResult, includeData);
+  }
+
   public String serialize(Object payload) {
     try {
       return graphQLObjectMapper.getJacksonMapper().writeValueAsString(payload);
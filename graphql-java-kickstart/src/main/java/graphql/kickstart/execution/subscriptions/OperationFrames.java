@@ -0,0 +1,44 @@
+package graphql.kickstart.execution.subscriptions;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Writes the {@code {"type", "id", "payload"}} envelope shared by the websocket subscription
+ * protocols from a template, so only the payload has to be serialized by the mapper.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class OperationFrames {
+
+  /** @return the frames without id and payload of all message types, keyed by type */
+  public static <T extends Enum<T>> Map<T, String> constantFrames(
+      Class<T> types, Function<T, String> typeValue) {
+    Map<T, String> frames = new EnumMap<>(types);
+    for (T type : types.getEnumConstants()) {
+      frames.put(type, frame(typeValue.apply(type), null, null));
+    }
+    return frames;
+  }
+
+  /** @return the frame of the given message, leaving out the id and payload if {@code null} */
+  public static String frame(String type, String id, String serializedPayload) {
+    StringBuilder frame =
+        new StringBuilder(
+            32 + (id != null ? id.length() : 0)
+                + (serializedPayload != null ? serializedPayload.length() : 0));
+    frame.append("{\"type\":\"").append(type).append('"');
+    if (id != null) {
+      frame.append(",\"id\":\"");
+      JsonStringEncoder.getInstance().quoteAsString(id, frame);
+      frame.append('"');
+    }
+    if (serializedPayload != null) {
+      frame.append(",\"payload\":").append(serializedPayload);
+    }
+    return frame.append('}').toString();
+  }
+}
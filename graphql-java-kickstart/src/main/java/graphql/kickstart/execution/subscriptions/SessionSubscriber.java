@@ -1,6 +1,7 @@
 package graphql.kickstart.execution.subscriptions;
 
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 
 import graphql.ExecutionResult;
 import graphql.GraphqlErrorBuilder;
@@ -33,10 +34,7 @@ class SessionSubscriber implements Subscriber<ExecutionResult> {
 
   @Override
   public void onNext(ExecutionResult executionResult) {
-    Map<String, Object> result = new HashMap<>();
-    result.put("data", executionResult.getData());
-
-    session.sendDataMessage(id, result);
+    session.sendDataMessage(id, singletonMap("data", executionResult.getData()));
     subscriptionReference.get().request(1);
   }
 
@@ -2,6 +2,7 @@ package graphql.kickstart.execution.subscriptions;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.reactivestreams.Subscription;
 
 /** @author Andrew Potter */
@@ -11,6 +12,15 @@ public class SessionSubscriptions {
 
   private boolean closed = false;
   private Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private volatile LongAdder subscriptionCounter;
+
+  /**
+   * Also counts the subscriptions of this session in the given counter, which can be shared by
+   * many sessions. Must be set before the first subscription is added.
+   */
+  public void setSubscriptionCounter(LongAdder subscriptionCounter) {
+    this.subscriptionCounter = subscriptionCounter;
+  }
 
   public void add(Subscription subscription) {
     add(getImplicitId(subscription), subscription);
@@ -21,7 +31,9 @@ public class SessionSubscriptions {
       if (closed) {
         throw new IllegalStateException("Websocket was already closed!");
       }
-      subscriptions.put(id, subscription);
+      if (subscriptions.put(id, subscription) == null) {
+        count(1);
+      }
     }
   }
 
@@ -32,6 +44,7 @@ public class SessionSubscriptions {
   public void cancel(String id) {
     Subscription subscription = subscriptions.remove(id);
     if (subscription != null) {
+      count(-1);
       subscription.cancel();
     }
   }
@@ -39,8 +52,16 @@ public class SessionSubscriptions {
   public void close() {
     synchronized (lock) {
       closed = true;
-      subscriptions.forEach((k, v) -> v.cancel());
-      subscriptions.clear();
+      for (String id : subscriptions.keySet()) {
+        cancel(id);
+      }
+    }
+  }
+
+  private void count(int delta) {
+    LongAdder counter = subscriptionCounter;
+    if (counter != null) {
+      counter.add(delta);
     }
   }
 
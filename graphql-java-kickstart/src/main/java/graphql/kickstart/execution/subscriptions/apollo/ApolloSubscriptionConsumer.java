@@ -1,9 +1,13 @@
 package graphql.kickstart.execution.subscriptions.apollo;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import graphql.kickstart.execution.GraphQLObjectMapper;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
 import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
+import java.io.IOException;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,13 +23,61 @@ public class ApolloSubscriptionConsumer implements Consumer<String> {
   @Override
   public void accept(String request) {
     try {
-      OperationMessage message =
-          objectMapper.getJacksonMapper().readValue(request, OperationMessage.class);
+      OperationMessage message = readMessage(request);
       SubscriptionCommand command = commandProvider.getByType(message.getType());
       command.apply(session, message);
-    } catch (JsonProcessingException e) {
+    } catch (IOException e) {
       log.error("Cannot read subscription command '{}'", request, e);
       session.sendMessage(new OperationMessage(Type.GQL_CONNECTION_ERROR, null, e.getMessage()));
     }
   }
+
+  /**
+   * Reads the message in a single pass. The payload is read as a plain object, like {@link
+   * OperationMessage} would be read by the object mapper, so connection listeners keep seeing
+   * maps; {@link SubscriptionStartCommand} turns it into a request.
+   */
+  private OperationMessage readMessage(String request) throws IOException {
+    ObjectMapper jacksonMapper = objectMapper.getJacksonMapper();
+    try (JsonParser parser = jacksonMapper.createParser(request)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(
+            parser, OperationMessage.class, "Subscription command must be a JSON object");
+      }
+
+      Type type = null;
+      String id = null;
+      Object payload = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "type":
+            type = Type.findType(readScalar(parser));
+            break;
+          case "id":
+            id = readScalar(parser);
+            break;
+          case "payload":
+            payload =
+                parser.currentToken() == JsonToken.VALUE_NULL
+                    ? null
+                    : jacksonMapper.readValue(parser, Object.class);
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
+      return new OperationMessage(type, id, payload);
+    }
+  }
+
+  /** @return the value as text, or {@code null} after skipping an object or array */
+  private static String readScalar(JsonParser parser) throws IOException {
+    if (parser.currentToken().isStructStart()) {
+      parser.skipChildren();
+      return null;
+    }
+    return parser.getValueAsString();
+  }
 }
@@ -1,68 +1,114 @@
 package graphql.kickstart.execution.subscriptions.apollo;
 
+import graphql.kickstart.execution.subscriptions.DefaultSubscriptionSession;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Sends keep-alive messages from a single timer wheel instead of scheduling a task per session.
+ * Sessions are spread over a fixed number of buckets, and every tick visits one bucket, so each
+ * session is visited once per keep-alive interval. Sessions that sent a message during the last
+ * half interval are skipped, which also delays the first keep-alive until after the connection
+ * acknowledgement. The tick thread is only started once the first session keeps alive.
+ */
 @Slf4j
 class ApolloSubscriptionKeepAliveRunner {
 
-  private static final int EXECUTOR_POOL_SIZE = 10;
+  private static final int WHEEL_SIZE = 16;
+  private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
-  private final ScheduledExecutorService executor;
-  private final OperationMessage keepAliveMessage;
-  private final Map<SubscriptionSession, Future<?>> futures;
-  private final long keepAliveIntervalSeconds;
+  private final String keepAliveMessage;
+  private final List<Set<SubscriptionSession>> buckets = new ArrayList<>(WHEEL_SIZE);
+  private final Map<SubscriptionSession, Integer> slots = new ConcurrentHashMap<>();
+  private final long idleNanos;
+  private final long tickNanos;
+  private ScheduledExecutorService executor;
+  private boolean shutdown;
+  private volatile int cursor;
 
   ApolloSubscriptionKeepAliveRunner(Duration keepAliveInterval) {
-    this.keepAliveMessage = OperationMessage.newKeepAliveMessage();
-    this.executor = Executors.newScheduledThreadPool(EXECUTOR_POOL_SIZE);
-    this.futures = new ConcurrentHashMap<>();
-    this.keepAliveIntervalSeconds = keepAliveInterval.getSeconds();
+    this.keepAliveMessage = OperationMessageEncoder.constantFrame(Type.GQL_CONNECTION_KEEP_ALIVE);
+    this.idleNanos = keepAliveInterval.toNanos() / 2;
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      buckets.add(ConcurrentHashMap.newKeySet());
+    }
+    this.tickNanos = Math.max(MIN_TICK_NANOS, keepAliveInterval.toNanos() / WHEEL_SIZE);
   }
 
   void keepAlive(SubscriptionSession session) {
-    futures.computeIfAbsent(session, this::startKeepAlive);
+    // the bucket visited last comes around again after a full interval
+    int slot = (cursor + WHEEL_SIZE - 1) % WHEEL_SIZE;
+    if (slots.putIfAbsent(session, slot) == null) {
+      buckets.get(slot).add(session);
+      start();
+    }
+  }
+
+  private synchronized void start() {
+    if (executor == null && !shutdown) {
+      executor = Executors.newSingleThreadScheduledExecutor();
+      executor.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void tick() {
+    tick(System.nanoTime());
+  }
+
+  /** Visits the next bucket as if the current {@link System#nanoTime()} was {@code now}. */
+  void tick(long now) {
+    int index = cursor;
+    cursor = (index + 1) % WHEEL_SIZE;
+    for (SubscriptionSession session : buckets.get(index)) {
+      if (!session.isOpen()) {
+        log.debug("Session {} appears to be closed. Aborting keep alive", session.getId());
+        abort(session);
+      } else if (isIdle(session, now)) {
+        sendKeepAlive(session);
+      }
+    }
+  }
+
+  private boolean isIdle(SubscriptionSession session, long now) {
+    return !(session instanceof DefaultSubscriptionSession)
+        || now - ((DefaultSubscriptionSession) session).getLastSendNanoTime() >= idleNanos;
   }
 
-  private ScheduledFuture<?> startKeepAlive(SubscriptionSession session) {
-    return executor.scheduleAtFixedRate(
-        () -> {
-          try {
-            if (session.isOpen()) {
-              session.sendMessage(keepAliveMessage);
-            } else {
-              log.debug("Session {} appears to be closed. Aborting keep alive", session.getId());
-              abort(session);
-            }
-          } catch (Exception t) {
-            log.error(
-                "Cannot send keep alive message to session {}. Aborting keep alive",
-                session.getId(),
-                t);
-            abort(session);
-          }
-        },
-        0,
-        keepAliveIntervalSeconds,
-        TimeUnit.SECONDS);
+  private void sendKeepAlive(SubscriptionSession session) {
+    try {
+      session.send(keepAliveMessage);
+    } catch (Exception t) {
+      log.error(
+          "Cannot send keep alive message to session {}. Aborting keep alive", session.getId(), t);
+      abort(session);
+    }
   }
 
   void abort(SubscriptionSession session) {
-    Future<?> future = futures.remove(session);
-    if (future != null) {
-      future.cancel(true);
+    Integer slot = slots.remove(session);
+    if (slot != null) {
+      buckets.get(slot).remove(session);
+    }
+  }
+
+  synchronized void shutdown() {
+    shutdown = true;
+    if (executor != null) {
+      executor.shutdown();
     }
   }
 
-  void shutdown() {
-    this.executor.shutdown();
+  synchronized boolean isStarted() {
+    return executor != null;
   }
 }
@@ -3,27 +3,40 @@ package graphql.kickstart.execution.subscriptions.apollo;
 import graphql.kickstart.execution.subscriptions.DefaultSubscriptionSession;
 import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
 import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class ApolloSubscriptionSession extends DefaultSubscriptionSession {
 
+  @Getter private final OperationMessageEncoder encoder;
+
   public ApolloSubscriptionSession(GraphQLSubscriptionMapper mapper) {
     super(mapper);
+    encoder = new OperationMessageEncoder(mapper);
+  }
+
+  @Override
+  public void sendMessage(Object payload) {
+    if (payload instanceof OperationMessage) {
+      send(encoder.encode((OperationMessage) payload));
+    } else {
+      super.sendMessage(payload);
+    }
   }
 
   @Override
   public void sendDataMessage(String id, Object payload) {
-    sendMessage(new OperationMessage(Type.GQL_DATA, id, payload));
+    send(encoder.encode(Type.GQL_DATA, id, payload));
   }
 
   @Override
   public void sendErrorMessage(String id, Object payload) {
-    sendMessage(new OperationMessage(Type.GQL_ERROR, id, payload));
+    send(encoder.encode(Type.GQL_ERROR, id, payload));
   }
 
   @Override
   public void sendCompleteMessage(String id) {
-    sendMessage(new OperationMessage(Type.GQL_COMPLETE, id, null));
+    send(encoder.encode(Type.GQL_COMPLETE, id, null));
   }
 }
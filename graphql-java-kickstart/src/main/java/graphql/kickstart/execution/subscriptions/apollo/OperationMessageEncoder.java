@@ -0,0 +1,58 @@
+package graphql.kickstart.execution.subscriptions.apollo;
+
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.OperationFrames;
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Encodes {@link OperationMessage operation messages} into text frames without going through the
+ * object mapper for the envelope. Frames without id and payload, such as keep-alives and
+ * connection acknowledgements, are encoded once; other frames are written from a template, and
+ * only their payload is serialized by the mapper. If the mapper is configured to write the
+ * envelope differently, for example with another naming strategy or inclusion, every frame is
+ * serialized by the mapper instead.
+ */
+public class OperationMessageEncoder {
+
+  private static final Map<Type, String> CONSTANT_FRAMES =
+      OperationFrames.constantFrames(Type.class, Type::getValue);
+
+  private final GraphQLSubscriptionMapper mapper;
+  private final boolean templated;
+
+  public OperationMessageEncoder(GraphQLSubscriptionMapper mapper) {
+    this.mapper = mapper;
+    this.templated = writesEnvelopeAsTemplate(mapper);
+  }
+
+  private static boolean writesEnvelopeAsTemplate(GraphQLSubscriptionMapper mapper) {
+    Map<String, Object> payload = Collections.singletonMap("key", null);
+    return CONSTANT_FRAMES
+            .get(Type.GQL_CONNECTION_ACK)
+            .equals(mapper.serialize(new OperationMessage(Type.GQL_CONNECTION_ACK, null, null)))
+        && OperationFrames.frame(Type.GQL_DATA.getValue(), "id", mapper.serialize(payload))
+            .equals(mapper.serialize(new OperationMessage(Type.GQL_DATA, "id", payload)));
+  }
+
+  /** @return the frame of a message of the given type without id and payload */
+  public static String constantFrame(Type type) {
+    return CONSTANT_FRAMES.get(type);
+  }
+
+  public String encode(OperationMessage message) {
+    return encode(message.getType(), message.getId(), message.getPayload());
+  }
+
+  public String encode(Type type, String id, Object payload) {
+    if (type == null || !templated) {
+      return mapper.serialize(new OperationMessage(type, id, payload));
+    }
+    if (id == null && payload == null) {
+      return CONSTANT_FRAMES.get(type);
+    }
+    return OperationFrames.frame(
+        type.getValue(), id, payload != null ? mapper.serialize(payload) : null);
+  }
+}
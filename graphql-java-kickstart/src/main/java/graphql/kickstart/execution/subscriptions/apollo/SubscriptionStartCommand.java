@@ -1,5 +1,6 @@
 package graphql.kickstart.execution.subscriptions.apollo;
 
+import static graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type.GQL_DATA;
 import static graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type.GQL_ERROR;
 
 import graphql.ExecutionResult;
@@ -10,10 +11,12 @@ import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationIn
 import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -36,21 +39,60 @@ class SubscriptionStartCommand implements SubscriptionCommand {
   private CompletableFuture<ExecutionResult> executeAsync(
       Object payload, SubscriptionSession session) {
     Objects.requireNonNull(payload, "Payload is required");
-    GraphQLRequest graphQLRequest = mapper.convertGraphQLRequest(payload);
+    GraphQLRequest graphQLRequest = toGraphQLRequest(payload);
 
     GraphQLSingleInvocationInput invocationInput =
         invocationInputFactory.create(graphQLRequest, session);
     return graphQLInvoker.executeAsync(invocationInput);
   }
 
+  /**
+   * Builds the request straight from the fields of a map payload when they have the expected
+   * types, and leaves anything else, such as variables sent as a JSON string, to the mapper.
+   */
+  @SuppressWarnings("unchecked")
+  private GraphQLRequest toGraphQLRequest(Object payload) {
+    if (payload instanceof GraphQLRequest) {
+      return (GraphQLRequest) payload;
+    }
+    if (payload instanceof Map) {
+      Map<String, Object> fields = (Map<String, Object>) payload;
+      Object query = fields.get("query");
+      Object variables = fields.get("variables");
+      Object extensions = fields.get("extensions");
+      Object operationName = fields.get("operationName");
+      if (isNullOr(query, String.class)
+          && isNullOr(variables, Map.class)
+          && isNullOr(extensions, Map.class)
+          && isNullOr(operationName, String.class)) {
+        return new GraphQLRequest(
+            (String) query,
+            (Map<String, Object>) variables,
+            (Map<String, Object>) extensions,
+            (String) operationName);
+      }
+    }
+    return mapper.convertGraphQLRequest(payload);
+  }
+
+  private static boolean isNullOr(Object value, Class<?> type) {
+    return value == null || type.isInstance(value);
+  }
+
   private void handleSubscriptionStart(
       SubscriptionSession session, String id, ExecutionResult executionResult) {
     ExecutionResult sanitizedExecutionResult = mapper.sanitizeErrors(executionResult);
-    if (mapper.hasNoErrors(sanitizedExecutionResult)) {
+    if (mapper.hasNoErrors(sanitizedExecutionResult)
+        && sanitizedExecutionResult.getData() instanceof Publisher) {
       session.subscribe(id, sanitizedExecutionResult.getData());
-    } else {
+    } else if (!executionResult.isDataPresent()) {
       Object payload = mapper.convertSanitizedExecutionResult(sanitizedExecutionResult);
       session.sendMessage(new OperationMessage(GQL_ERROR, id, payload));
+    } else {
+      // queries and mutations complete with their single result
+      Object payload = mapper.convertSanitizedExecutionResult(sanitizedExecutionResult, true);
+      session.sendMessage(new OperationMessage(GQL_DATA, id, payload));
+      session.sendCompleteMessage(id);
     }
   }
 }
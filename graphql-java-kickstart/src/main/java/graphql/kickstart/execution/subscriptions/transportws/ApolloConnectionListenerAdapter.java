@@ -0,0 +1,53 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import graphql.kickstart.execution.GraphQLRequest;
+import graphql.kickstart.execution.subscriptions.SubscriptionSession;
+import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionConnectionListener;
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage;
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lets an {@link ApolloSubscriptionConnectionListener} listen to {@code graphql-transport-ws}
+ * connections, so hooks such as authentication in {@code onConnect} apply to both protocols. The
+ * listener sees the messages as their {@code graphql-ws} counterparts, with the request of a
+ * {@code subscribe} message as a map.
+ */
+@RequiredArgsConstructor
+public class ApolloConnectionListenerAdapter implements TransportWsSubscriptionConnectionListener {
+
+  private final ApolloSubscriptionConnectionListener listener;
+
+  @Override
+  public void onConnect(SubscriptionSession session, TransportWsMessage message) {
+    listener.onConnect(
+        session, new OperationMessage(Type.GQL_CONNECTION_INIT, null, message.getPayload()));
+  }
+
+  @Override
+  public void onSubscribe(SubscriptionSession session, TransportWsMessage message) {
+    listener.onStart(
+        session,
+        new OperationMessage(Type.GQL_START, message.getId(), toMap(message.getPayload())));
+  }
+
+  @Override
+  public void onComplete(SubscriptionSession session, TransportWsMessage message) {
+    listener.onStop(session, new OperationMessage(Type.GQL_STOP, message.getId(), null));
+  }
+
+  private static Object toMap(Object payload) {
+    if (!(payload instanceof GraphQLRequest)) {
+      return payload;
+    }
+    GraphQLRequest request = (GraphQLRequest) payload;
+    Map<String, Object> map = new HashMap<>();
+    map.put("query", request.getQuery());
+    map.put("variables", request.getVariables());
+    map.put("extensions", request.getExtensions());
+    map.put("operationName", request.getOperationName());
+    return map;
+  }
+}
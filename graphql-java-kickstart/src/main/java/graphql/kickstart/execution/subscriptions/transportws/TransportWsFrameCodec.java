@@ -0,0 +1,113 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.GraphQLRequest;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.OperationFrames;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsMessage.Type;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads and writes {@code graphql-transport-ws} frames. Incoming frames are read in a single
+ * streaming pass, with the payload of {@code subscribe} messages read as a {@link GraphQLRequest}.
+ * Outgoing frames without id and payload are encoded once, other frames are written from a
+ * template and only their payload is serialized by the mapper.
+ */
+public class TransportWsFrameCodec {
+
+  private static final Map<Type, String> CONSTANT_FRAMES =
+      OperationFrames.constantFrames(Type.class, Type::getValue);
+
+  private final ObjectMapper jacksonMapper;
+  private final GraphQLSubscriptionMapper mapper;
+
+  public TransportWsFrameCodec(GraphQLObjectMapper objectMapper) {
+    this.jacksonMapper = objectMapper.getJacksonMapper();
+    this.mapper = new GraphQLSubscriptionMapper(objectMapper);
+  }
+
+  /**
+   * @return the decoded message, with a {@code null} type if the type is missing or unknown
+   * @throws IOException if the frame is not a JSON object
+   */
+  public TransportWsMessage decode(String frame) throws IOException {
+    try (JsonParser parser = jacksonMapper.createParser(frame)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(
+            parser, TransportWsMessage.class, "Message must be a JSON object");
+      }
+
+      Type type = null;
+      String id = null;
+      Object payload = null;
+      TokenBuffer bufferedPayload = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "type":
+            type = Type.findType(readScalar(parser));
+            break;
+          case "id":
+            id = readScalar(parser);
+            break;
+          case "payload":
+            if (type == null) {
+              bufferedPayload = new TokenBuffer(parser);
+              bufferedPayload.copyCurrentStructure(parser);
+            } else {
+              payload = readPayload(parser, type);
+            }
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
+
+      if (bufferedPayload != null && type != null) {
+        try (JsonParser payloadParser = bufferedPayload.asParser(parser)) {
+          payloadParser.nextToken();
+          payload = readPayload(payloadParser, type);
+        }
+      }
+      return new TransportWsMessage(type, id, payload);
+    }
+  }
+
+  /** @return the value as text, or {@code null} after skipping an object or array */
+  private static String readScalar(JsonParser parser) throws IOException {
+    if (parser.currentToken().isStructStart()) {
+      parser.skipChildren();
+      return null;
+    }
+    return parser.getValueAsString();
+  }
+
+  private Object readPayload(JsonParser parser, Type type) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (type == Type.SUBSCRIBE) {
+      return jacksonMapper.readValue(parser, GraphQLRequest.class);
+    }
+    return jacksonMapper.readValue(parser, Object.class);
+  }
+
+  public String encode(Type type) {
+    return CONSTANT_FRAMES.get(type);
+  }
+
+  public String encode(Type type, String id, Object payload) {
+    if (id == null && payload == null) {
+      return CONSTANT_FRAMES.get(type);
+    }
+    return OperationFrames.frame(
+        type.getValue(), id, payload != null ? mapper.serialize(payload) : null);
+  }
+}
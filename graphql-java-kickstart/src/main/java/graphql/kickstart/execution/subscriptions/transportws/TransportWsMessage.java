@@ -0,0 +1,45 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Message of the {@code graphql-transport-ws} protocol. */
+@Getter
+@AllArgsConstructor
+public class TransportWsMessage {
+
+  private final Type type;
+  private final String id;
+  private final Object payload;
+
+  public enum Type {
+    CONNECTION_INIT("connection_init"),
+    CONNECTION_ACK("connection_ack"),
+    PING("ping"),
+    PONG("pong"),
+    SUBSCRIBE("subscribe"),
+    NEXT("next"),
+    ERROR("error"),
+    COMPLETE("complete");
+
+    private static final Map<String, Type> reverseLookup = new HashMap<>();
+
+    static {
+      for (Type type : Type.values()) {
+        reverseLookup.put(type.getValue(), type);
+      }
+    }
+
+    @Getter private final String value;
+
+    Type(String value) {
+      this.value = value;
+    }
+
+    public static Type findType(String value) {
+      return value != null ? reverseLookup.get(value) : null;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import graphql.kickstart.execution.subscriptions.SubscriptionConnectionListener;
+import graphql.kickstart.execution.subscriptions.SubscriptionSession;
+
+/**
+ * Listener of {@code graphql-transport-ws} connections. If {@link #onConnect} throws, the
+ * connection is closed with {@link TransportWsSubscriptionSession#FORBIDDEN} instead of being
+ * acknowledged.
+ */
+public interface TransportWsSubscriptionConnectionListener extends SubscriptionConnectionListener {
+
+  /** Called on {@code connection_init}, before the connection is acknowledged. */
+  default void onConnect(SubscriptionSession session, TransportWsMessage message) {
+    // do nothing
+  }
+
+  /** Called on {@code subscribe}, with the {@link graphql.kickstart.execution.GraphQLRequest}. */
+  default void onSubscribe(SubscriptionSession session, TransportWsMessage message) {
+    // do nothing
+  }
+
+  /** Called when the client completes a running operation. */
+  default void onComplete(SubscriptionSession session, TransportWsMessage message) {
+    // do nothing
+  }
+}
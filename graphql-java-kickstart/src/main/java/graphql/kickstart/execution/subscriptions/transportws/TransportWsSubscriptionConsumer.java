@@ -0,0 +1,145 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.FORBIDDEN;
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.INVALID_MESSAGE;
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.SUBSCRIBER_ALREADY_EXISTS;
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.TOO_MANY_INITIALISATION_REQUESTS;
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.UNAUTHORIZED;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+import graphql.ExecutionResult;
+import graphql.kickstart.execution.GraphQLInvoker;
+import graphql.kickstart.execution.GraphQLRequest;
+import graphql.kickstart.execution.error.GenericGraphQLError;
+import graphql.kickstart.execution.input.GraphQLSingleInvocationInput;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationInputFactory;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsMessage.Type;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+
+@Slf4j
+@RequiredArgsConstructor
+class TransportWsSubscriptionConsumer implements Consumer<String> {
+
+  private final TransportWsSubscriptionSession session;
+  private final GraphQLSubscriptionMapper mapper;
+  private final GraphQLSubscriptionInvocationInputFactory invocationInputFactory;
+  private final GraphQLInvoker graphQLInvoker;
+  private final Future<?> connectionInitialisationTimeout;
+  private final Collection<TransportWsSubscriptionConnectionListener> connectionListeners;
+
+  @Override
+  public void accept(String frame) {
+    TransportWsMessage message;
+    try {
+      message = session.getCodec().decode(frame);
+    } catch (IOException e) {
+      log.debug("Cannot read message '{}' of session {}", frame, session.getId(), e);
+      session.close(INVALID_MESSAGE, "Invalid message received");
+      return;
+    }
+
+    Type type = message.getType();
+    if (type == null) {
+      session.close(INVALID_MESSAGE, "Invalid message received");
+      return;
+    }
+    switch (type) {
+      case CONNECTION_INIT:
+        initialise(message);
+        break;
+      case PING:
+        session.send(session.getCodec().encode(Type.PONG));
+        break;
+      case PONG:
+        break;
+      case SUBSCRIBE:
+        subscribe(message);
+        break;
+      case COMPLETE:
+        if (message.getId() != null && session.endOperation(message.getId())) {
+          connectionListeners.forEach(it -> it.onComplete(session, message));
+          session.unsubscribe(message.getId());
+        }
+        break;
+      default:
+        session.close(INVALID_MESSAGE, "Invalid message type " + type.getValue());
+    }
+  }
+
+  private void initialise(TransportWsMessage message) {
+    if (!session.initialise()) {
+      session.close(TOO_MANY_INITIALISATION_REQUESTS, "Too many initialisation requests");
+      return;
+    }
+    if (connectionInitialisationTimeout != null) {
+      connectionInitialisationTimeout.cancel(false);
+    }
+    try {
+      connectionListeners.forEach(it -> it.onConnect(session, message));
+    } catch (Exception e) {
+      log.debug("Connection of session {} rejected by a listener", session.getId(), e);
+      session.close(FORBIDDEN, "Forbidden");
+      return;
+    }
+    session.acknowledge();
+  }
+
+  private void subscribe(TransportWsMessage message) {
+    String id = message.getId();
+    if (!session.isAcknowledged()) {
+      session.close(UNAUTHORIZED, "Unauthorized");
+      return;
+    }
+    if (id == null || !(message.getPayload() instanceof GraphQLRequest)) {
+      session.close(INVALID_MESSAGE, "Invalid message received");
+      return;
+    }
+    if (!session.startOperation(id)) {
+      session.close(SUBSCRIBER_ALREADY_EXISTS, "Subscriber for " + id + " already exists");
+      return;
+    }
+    connectionListeners.forEach(it -> it.onSubscribe(session, message));
+
+    GraphQLSingleInvocationInput invocationInput =
+        invocationInputFactory.create((GraphQLRequest) message.getPayload(), session);
+    graphQLInvoker
+        .executeAsync(invocationInput)
+        .whenComplete((result, error) -> handleSubscriptionStart(id, result, error));
+  }
+
+  private void handleSubscriptionStart(
+      String id, ExecutionResult executionResult, Throwable error) {
+    if (!session.isOperationActive(id)) {
+      // completed by the client in the meantime
+      return;
+    }
+    if (error != null) {
+      log.error("Cannot execute operation {} of session {}", id, session.getId(), error);
+      session.sendErrorMessage(
+          id, singletonMap("errors", singletonList(new GenericGraphQLError(error.getMessage()))));
+      return;
+    }
+
+    ExecutionResult sanitizedExecutionResult = mapper.sanitizeErrors(executionResult);
+    if (mapper.hasNoErrors(sanitizedExecutionResult)
+        && sanitizedExecutionResult.getData() instanceof Publisher) {
+      session.subscribe(id, sanitizedExecutionResult.getData());
+    } else if (!executionResult.isDataPresent()) {
+      session.sendErrorMessage(
+          id, mapper.convertSanitizedExecutionResult(sanitizedExecutionResult));
+    } else {
+      // queries and mutations complete with their single result, which is never dropped
+      Object payload = mapper.convertSanitizedExecutionResult(sanitizedExecutionResult, true);
+      session.send(session.getCodec().encode(Type.NEXT, id, payload));
+      session.sendCompleteMessage(id);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import static graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession.CONNECTION_INITIALISATION_TIMEOUT;
+
+import graphql.kickstart.execution.GraphQLInvoker;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationInputFactory;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.SubscriptionProtocolFactory;
+import graphql.kickstart.execution.subscriptions.SubscriptionSession;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.Getter;
+
+/**
+ * Factory of the {@code graphql-transport-ws} protocol. Pings of the client are answered with
+ * pongs and the server does not send any keep-alive of its own. Connections that are not
+ * initialised within the connection initialisation timeout are closed, and the connection
+ * listeners decide whether connections that are initialised are acknowledged.
+ */
+public class TransportWsSubscriptionProtocolFactory extends SubscriptionProtocolFactory {
+
+  public static final String PROTOCOL = "graphql-transport-ws";
+  public static final Duration DEFAULT_CONNECTION_INITIALISATION_TIMEOUT = Duration.ofSeconds(3);
+
+  @Getter private final GraphQLObjectMapper objectMapper;
+  @Getter private final TransportWsFrameCodec codec;
+  private final GraphQLSubscriptionMapper mapper;
+  private final GraphQLSubscriptionInvocationInputFactory invocationInputFactory;
+  private final GraphQLInvoker graphQLInvoker;
+  private final Duration connectionInitialisationTimeout;
+  private final List<TransportWsSubscriptionConnectionListener> connectionListeners;
+  private final ScheduledThreadPoolExecutor executor;
+
+  public TransportWsSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker) {
+    this(
+        objectMapper,
+        invocationInputFactory,
+        graphQLInvoker,
+        DEFAULT_CONNECTION_INITIALISATION_TIMEOUT);
+  }
+
+  /** @param connectionInitialisationTimeout {@code null} to wait for the initialisation forever */
+  public TransportWsSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Duration connectionInitialisationTimeout) {
+    this(
+        objectMapper,
+        invocationInputFactory,
+        graphQLInvoker,
+        null,
+        connectionInitialisationTimeout);
+  }
+
+  public TransportWsSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Collection<TransportWsSubscriptionConnectionListener> connectionListeners) {
+    this(
+        objectMapper,
+        invocationInputFactory,
+        graphQLInvoker,
+        connectionListeners,
+        DEFAULT_CONNECTION_INITIALISATION_TIMEOUT);
+  }
+
+  /** @param connectionInitialisationTimeout {@code null} to wait for the initialisation forever */
+  public TransportWsSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Collection<TransportWsSubscriptionConnectionListener> connectionListeners,
+      Duration connectionInitialisationTimeout) {
+    super(PROTOCOL);
+    this.objectMapper = objectMapper;
+    this.codec = new TransportWsFrameCodec(objectMapper);
+    this.mapper = new GraphQLSubscriptionMapper(objectMapper);
+    this.invocationInputFactory = invocationInputFactory;
+    this.graphQLInvoker = graphQLInvoker;
+    this.connectionInitialisationTimeout = connectionInitialisationTimeout;
+    this.connectionListeners = new ArrayList<>();
+    if (connectionListeners != null) {
+      this.connectionListeners.addAll(connectionListeners);
+    }
+    this.executor = new ScheduledThreadPoolExecutor(1);
+    this.executor.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  public Consumer<String> createConsumer(SubscriptionSession session) {
+    if (!(session instanceof TransportWsSubscriptionSession)) {
+      throw new IllegalArgumentException(
+          PROTOCOL + " requires a " + TransportWsSubscriptionSession.class.getSimpleName());
+    }
+    TransportWsSubscriptionSession transportWsSession = (TransportWsSubscriptionSession) session;
+    return new TransportWsSubscriptionConsumer(
+        transportWsSession,
+        mapper,
+        invocationInputFactory,
+        graphQLInvoker,
+        scheduleConnectionInitialisationTimeout(transportWsSession),
+        connectionListeners);
+  }
+
+  private Future<?> scheduleConnectionInitialisationTimeout(
+      TransportWsSubscriptionSession session) {
+    if (connectionInitialisationTimeout == null) {
+      return null;
+    }
+    return executor.schedule(
+        () -> {
+          if (session.isOpen() && !session.isAcknowledged()) {
+            session.close(
+                CONNECTION_INITIALISATION_TIMEOUT, "Connection initialisation timeout");
+          }
+        },
+        connectionInitialisationTimeout.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,102 @@
+package graphql.kickstart.execution.subscriptions.transportws;
+
+import graphql.kickstart.execution.subscriptions.DefaultSubscriptionSession;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsMessage.Type;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+
+/** Session of the {@code graphql-transport-ws} protocol. */
+public class TransportWsSubscriptionSession extends DefaultSubscriptionSession {
+
+  public static final int INVALID_MESSAGE = 4400;
+  public static final int UNAUTHORIZED = 4401;
+  public static final int FORBIDDEN = 4403;
+  public static final int CONNECTION_INITIALISATION_TIMEOUT = 4408;
+  public static final int SUBSCRIBER_ALREADY_EXISTS = 4409;
+  public static final int TOO_MANY_INITIALISATION_REQUESTS = 4429;
+
+  @Getter private final TransportWsFrameCodec codec;
+  private final Set<String> operationIds = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean initialised = new AtomicBoolean();
+  private volatile boolean acknowledged;
+
+  public TransportWsSubscriptionSession(
+      GraphQLSubscriptionMapper mapper, TransportWsFrameCodec codec) {
+    super(mapper);
+    this.codec = codec;
+  }
+
+  /** @return false if the connection was already initialised */
+  boolean initialise() {
+    return initialised.compareAndSet(false, true);
+  }
+
+  void acknowledge() {
+    acknowledged = true;
+    send(codec.encode(Type.CONNECTION_ACK));
+  }
+
+  public boolean isAcknowledged() {
+    return acknowledged;
+  }
+
+  /** @return false if an operation with the given id is already running */
+  boolean startOperation(String id) {
+    return operationIds.add(id);
+  }
+
+  boolean isOperationActive(String id) {
+    return operationIds.contains(id);
+  }
+
+  boolean endOperation(String id) {
+    return operationIds.remove(id);
+  }
+
+  @Override
+  public void sendMessage(Object payload) {
+    if (payload instanceof TransportWsMessage) {
+      TransportWsMessage message = (TransportWsMessage) payload;
+      send(codec.encode(message.getType(), message.getId(), message.getPayload()));
+    } else {
+      super.sendMessage(payload);
+    }
+  }
+
+  @Override
+  public void sendDataMessage(String id, Object payload) {
+    send(codec.encode(Type.NEXT, id, payload));
+  }
+
+  /** The error message carries the list of errors only, not the whole execution result. */
+  @Override
+  public void sendErrorMessage(String id, Object payload) {
+    if (endOperation(id)) {
+      send(codec.encode(Type.ERROR, id, errors(payload)));
+    }
+  }
+
+  protected Object errors(Object payload) {
+    if (payload instanceof Map && ((Map<?, ?>) payload).containsKey("errors")) {
+      return ((Map<?, ?>) payload).get("errors");
+    }
+    return payload;
+  }
+
+  /** Operations completed by the client are not completed again by the server. */
+  @Override
+  public void sendCompleteMessage(String id) {
+    if (endOperation(id)) {
+      send(codec.encode(Type.COMPLETE, id, null));
+    }
+  }
+
+  /** Closes the connection with one of the close codes of the protocol. */
+  public void close(int code, String reason) {
+    close(reason);
+  }
+}
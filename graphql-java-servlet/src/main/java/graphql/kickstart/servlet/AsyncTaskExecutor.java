@@ -1,6 +1,9 @@
 package graphql.kickstart.servlet;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
@@ -9,14 +12,28 @@ class AsyncTaskExecutor implements Executor {
 
   private final Executor executor;
   private final AsyncTaskDecorator taskDecorator;
+  private final LongAdder rejectedTaskCount = new LongAdder();
 
   @Override
   public void execute(@NonNull Runnable command) {
-    if (taskDecorator != null) {
-      Runnable decorated = taskDecorator.decorate(command);
-      executor.execute(decorated);
-    } else {
-      executor.execute(command);
+    Runnable task = taskDecorator != null ? taskDecorator.decorate(command) : command;
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      rejectedTaskCount.increment();
+      throw e;
     }
   }
+
+  /** @return number of tasks waiting for a thread, or -1 if the executor does not expose it */
+  int getQueueSize() {
+    if (executor instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executor).getQueue().size();
+    }
+    return -1;
+  }
+
+  long getRejectedTaskCount() {
+    return rejectedTaskCount.sum();
+  }
 }
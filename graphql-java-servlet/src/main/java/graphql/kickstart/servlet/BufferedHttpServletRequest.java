@@ -0,0 +1,97 @@
+package graphql.kickstart.servlet;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/** Request whose body has already been read into memory. */
+class BufferedHttpServletRequest extends HttpServletRequestWrapper {
+
+  private final byte[] body;
+  private ServletInputStream inputStream;
+  private BufferedReader reader;
+
+  BufferedHttpServletRequest(HttpServletRequest request, byte[] body) {
+    super(request);
+    this.body = body;
+  }
+
+  @Override
+  public ServletInputStream getInputStream() {
+    if (reader != null) {
+      throw new IllegalStateException("getReader() has already been called on this request.");
+    }
+    if (inputStream == null) {
+      inputStream = new BufferedInputStream(new ByteArrayInputStream(body));
+    }
+    return inputStream;
+  }
+
+  @Override
+  public BufferedReader getReader() throws IOException {
+    if (inputStream != null) {
+      throw new IllegalStateException(
+          "getInputStream() has already been called on this request.");
+    }
+    if (reader == null) {
+      reader =
+          new BufferedReader(
+              new InputStreamReader(new ByteArrayInputStream(body), getCharset()));
+    }
+    return reader;
+  }
+
+  private Charset getCharset() throws UnsupportedEncodingException {
+    String characterEncoding = getCharacterEncoding();
+    if (characterEncoding == null) {
+      return StandardCharsets.UTF_8;
+    }
+    try {
+      return Charset.forName(characterEncoding);
+    } catch (IllegalArgumentException e) {
+      throw new UnsupportedEncodingException(characterEncoding);
+    }
+  }
+
+  private static final class BufferedInputStream extends ServletInputStream {
+
+    private final ByteArrayInputStream delegate;
+
+    private BufferedInputStream(ByteArrayInputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int read() {
+      return delegate.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      return delegate.read(b, off, len);
+    }
+
+    @Override
+    public boolean isFinished() {
+      return delegate.available() == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      throw new IllegalStateException("The request body has already been read");
+    }
+  }
+}
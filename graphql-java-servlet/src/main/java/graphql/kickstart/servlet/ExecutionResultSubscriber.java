@@ -1,64 +1,258 @@
 package graphql.kickstart.servlet;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import graphql.ExecutionResult;
 import graphql.kickstart.execution.GraphQLObjectMapper;
 import java.io.IOException;
-import java.io.Writer;
-import java.util.concurrent.CountDownLatch;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import jakarta.servlet.AsyncContext;
+import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+/**
+ * Writes the events of a subscription as server-sent events. Up to {@code demand} events are
+ * requested at a time, and events that arrive while others are being written are sent together
+ * with a single flush.
+ */
+@Slf4j
 class ExecutionResultSubscriber implements Subscriber<ExecutionResult> {
 
+  private static final String DATA_PREFIX = "data: ";
+  private static final String EVENT_SEPARATOR = "\n\n";
+
   private final AtomicReference<Subscription> subscriptionRef;
   private final AsyncContext asyncContext;
   private final GraphQLObjectMapper graphQLObjectMapper;
-  private final CountDownLatch completedLatch = new CountDownLatch(1);
+  private final boolean completeAsyncContext;
+  private final int demand;
+  private final int bufferSize;
+  private final SlowConsumerPolicy slowConsumerPolicy;
+  private final Executor executor;
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+  private final Deque<ExecutionResult> pending = new ArrayDeque<>();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final AtomicBoolean terminated = new AtomicBoolean();
+  private volatile boolean done;
+  private volatile boolean disconnecting;
+  private int receivedSinceRequest;
 
   ExecutionResultSubscriber(
       AtomicReference<Subscription> subscriptionRef,
       AsyncContext asyncContext,
-      GraphQLObjectMapper graphQLObjectMapper) {
+      GraphQLObjectMapper graphQLObjectMapper,
+      boolean completeAsyncContext) {
+    this(
+        subscriptionRef,
+        asyncContext,
+        graphQLObjectMapper,
+        completeAsyncContext,
+        1,
+        Integer.MAX_VALUE,
+        SlowConsumerPolicy.BACKPRESSURE,
+        null);
+  }
+
+  /**
+   * @param demand number of events requested from the publisher at a time
+   * @param bufferSize number of events kept while waiting for the client, ignored with {@link
+   *     SlowConsumerPolicy#BACKPRESSURE}
+   * @param executor used to write events without blocking the publisher unless the policy is
+   *     {@link SlowConsumerPolicy#BACKPRESSURE}, events are written by the publishing thread if
+   *     {@code null}
+   */
+  ExecutionResultSubscriber(
+      AtomicReference<Subscription> subscriptionRef,
+      AsyncContext asyncContext,
+      GraphQLObjectMapper graphQLObjectMapper,
+      boolean completeAsyncContext,
+      int demand,
+      int bufferSize,
+      SlowConsumerPolicy slowConsumerPolicy,
+      Executor executor) {
     this.subscriptionRef = subscriptionRef;
     this.asyncContext = asyncContext;
     this.graphQLObjectMapper = graphQLObjectMapper;
+    this.completeAsyncContext = completeAsyncContext;
+    this.demand = Math.max(1, demand);
+    this.bufferSize = Math.max(1, bufferSize);
+    this.slowConsumerPolicy = slowConsumerPolicy;
+    this.executor = slowConsumerPolicy == SlowConsumerPolicy.BACKPRESSURE ? null : executor;
   }
 
   @Override
   public void onSubscribe(Subscription subscription) {
     subscriptionRef.set(subscription);
-    subscriptionRef.get().request(1);
+    subscription.request(demand);
   }
 
   @Override
   public void onNext(ExecutionResult executionResult) {
-    try {
-      Writer writer = asyncContext.getResponse().getWriter();
-      writer.write("data: ");
-      writer.write(graphQLObjectMapper.serializeResultAsJson(executionResult));
-      writer.write("\n\n");
-      writer.flush();
-      subscriptionRef.get().request(1);
-    } catch (IOException ignored) {
-      // ignore
+    if (disconnecting) {
+      return;
+    }
+    boolean overflow = false;
+    synchronized (pending) {
+      if (pending.size() < bufferSize || slowConsumerPolicy == SlowConsumerPolicy.BACKPRESSURE) {
+        pending.addLast(executionResult);
+      } else if (slowConsumerPolicy == SlowConsumerPolicy.DROP_OLDEST) {
+        pending.pollFirst();
+        pending.addLast(executionResult);
+      } else if (slowConsumerPolicy == SlowConsumerPolicy.CONFLATE_LATEST) {
+        pending.clear();
+        pending.addLast(executionResult);
+      } else {
+        overflow = true;
+      }
+    }
+
+    if (overflow) {
+      log.warn("Closing subscription stream because the client cannot keep up with its events");
+      requestDisconnect();
+      return;
+    }
+    if (slowConsumerPolicy != SlowConsumerPolicy.BACKPRESSURE) {
+      // keep up to demand events in flight regardless of the client
+      receivedSinceRequest++;
+      if (receivedSinceRequest >= Math.max(1, demand / 2)) {
+        subscriptionRef.get().request(receivedSinceRequest);
+        receivedSinceRequest = 0;
+      }
     }
+    drain();
   }
 
   @Override
   public void onError(Throwable t) {
-    asyncContext.complete();
-    completedLatch.countDown();
+    done = true;
+    drain();
   }
 
   @Override
   public void onComplete() {
-    asyncContext.complete();
-    completedLatch.countDown();
+    done = true;
+    drain();
+  }
+
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0) {
+      // the thread currently draining picks up the new events
+      return;
+    }
+    if (executor == null) {
+      drainLoop();
+      return;
+    }
+    try {
+      executor.execute(this::drainLoop);
+    } catch (RejectedExecutionException e) {
+      drainLoop();
+    }
+  }
+
+  private void drainLoop() {
+    int missed = 1;
+    do {
+      if (disconnecting) {
+        disconnect();
+        return;
+      }
+      List<ExecutionResult> events;
+      synchronized (pending) {
+        events = new ArrayList<>(pending);
+        pending.clear();
+      }
+      if (!events.isEmpty()) {
+        try {
+          write(events);
+        } catch (IOException | IllegalStateException e) {
+          log.debug("Closing subscription stream because writing to the client failed", e);
+          disconnect();
+          return;
+        }
+        if (slowConsumerPolicy == SlowConsumerPolicy.BACKPRESSURE && !done) {
+          subscriptionRef.get().request(events.size());
+        }
+      }
+      if (done && isPendingEmpty()) {
+        terminate();
+        return;
+      }
+      missed = drainRequests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void write(List<ExecutionResult> events) throws IOException {
+    OutputStream outputStream = asyncContext.getResponse().getOutputStream();
+    // the generator must not flush the stream, all events are flushed together below
+    try (JsonGenerator generator =
+        graphQLObjectMapper
+            .createJsonGenerator(outputStream)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)) {
+      generator.setRootValueSeparator(null);
+      for (ExecutionResult event : events) {
+        generator.writeRaw(DATA_PREFIX);
+        graphQLObjectMapper.serializeResultAsJson(generator, event);
+        generator.writeRaw(EVENT_SEPARATOR);
+      }
+    }
+    outputStream.flush();
+  }
+
+  private boolean isPendingEmpty() {
+    synchronized (pending) {
+      return pending.isEmpty();
+    }
+  }
+
+  /**
+   * Cancels the subscription and leaves terminating the stream to the draining thread, which may
+   * still be writing events.
+   */
+  private void requestDisconnect() {
+    disconnecting = true;
+    Subscription subscription = subscriptionRef.get();
+    if (subscription != null) {
+      subscription.cancel();
+    }
+    drain();
+  }
+
+  /** Terminates the stream, only called by the draining thread. */
+  private void disconnect() {
+    done = true;
+    Subscription subscription = subscriptionRef.get();
+    if (subscription != null && !disconnecting) {
+      subscription.cancel();
+    }
+    synchronized (pending) {
+      pending.clear();
+    }
+    terminate();
+  }
+
+  private void terminate() {
+    if (!terminated.compareAndSet(false, true)) {
+      return;
+    }
+    if (completeAsyncContext) {
+      asyncContext.complete();
+    }
+    completion.complete(null);
   }
 
-  void await() throws InterruptedException {
-    completedLatch.await();
+  /** @return future completed when the subscription has terminated */
+  CompletableFuture<Void> getCompletion() {
+    return completion;
   }
 }
@@ -1,9 +1,12 @@
 package graphql.kickstart.servlet;
 
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.kickstart.execution.GraphQLInvoker;
 import graphql.kickstart.execution.GraphQLObjectMapper;
 import graphql.kickstart.execution.GraphQLQueryInvoker;
+import graphql.kickstart.execution.config.CachingPreparsedDocumentProvider;
 import graphql.kickstart.execution.context.ContextSetting;
+import graphql.kickstart.execution.persisted.PersistedQueryStore;
 import graphql.kickstart.servlet.cache.CachingHttpRequestInvoker;
 import graphql.kickstart.servlet.cache.GraphQLResponseCacheManager;
 import graphql.kickstart.servlet.config.DefaultGraphQLSchemaServletProvider;
@@ -14,11 +17,14 @@ import graphql.kickstart.servlet.core.GraphQLServletRootObjectBuilder;
 import graphql.kickstart.servlet.input.BatchInputPreProcessor;
 import graphql.kickstart.servlet.input.GraphQLInvocationInputFactory;
 import graphql.kickstart.servlet.input.NoOpBatchInputPreProcessor;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
 import graphql.schema.GraphQLSchema;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -35,7 +41,17 @@ public class GraphQLConfiguration {
   @Getter private final long asyncTimeout;
   private final ContextSetting contextSetting;
   private final GraphQLResponseCacheManager responseCacheManager;
-  @Getter private final Executor asyncExecutor;
+  private final AsyncTaskExecutor asyncExecutor;
+  @Getter private final int asyncRetryAfter;
+  @Getter private final boolean streamResponses;
+  @Getter private final boolean incrementalBatchDelivery;
+  @Getter private final boolean nonBlockingIO;
+  @Getter private final int maxRequestBodySize;
+  @Getter private final int subscriptionDemand;
+  @Getter private final int subscriptionBufferSize;
+  @Getter private final SlowConsumerPolicy subscriptionSlowConsumerPolicy;
+  @Getter private final SlowConsumerPolicy webSocketSlowConsumerPolicy;
+  @Getter private final int webSocketOutboundQueueCapacity;
   private HttpRequestHandler requestHandler;
 
   private GraphQLConfiguration(
@@ -49,9 +65,29 @@ public class GraphQLConfiguration {
       ContextSetting contextSetting,
       Supplier<BatchInputPreProcessor> batchInputPreProcessor,
       GraphQLResponseCacheManager responseCacheManager,
-      Executor asyncExecutor) {
+      AsyncTaskExecutor asyncExecutor,
+      int asyncRetryAfter,
+      boolean streamResponses,
+      boolean incrementalBatchDelivery,
+      boolean nonBlockingIO,
+      int maxRequestBodySize,
+      int subscriptionDemand,
+      int subscriptionBufferSize,
+      SlowConsumerPolicy subscriptionSlowConsumerPolicy,
+      SlowConsumerPolicy webSocketSlowConsumerPolicy,
+      int webSocketOutboundQueueCapacity) {
     this.invocationInputFactory = invocationInputFactory;
     this.asyncExecutor = asyncExecutor;
+    this.asyncRetryAfter = asyncRetryAfter;
+    this.streamResponses = streamResponses;
+    this.incrementalBatchDelivery = incrementalBatchDelivery;
+    this.nonBlockingIO = nonBlockingIO;
+    this.maxRequestBodySize = maxRequestBodySize;
+    this.subscriptionDemand = subscriptionDemand;
+    this.subscriptionBufferSize = subscriptionBufferSize;
+    this.subscriptionSlowConsumerPolicy = subscriptionSlowConsumerPolicy;
+    this.webSocketSlowConsumerPolicy = webSocketSlowConsumerPolicy;
+    this.webSocketOutboundQueueCapacity = webSocketOutboundQueueCapacity;
     this.graphQLInvoker = graphQLInvoker != null ? graphQLInvoker : queryInvoker.toGraphQLInvoker();
     this.objectMapper = objectMapper;
     this.listeners = listeners;
@@ -75,6 +111,23 @@ public class GraphQLConfiguration {
     return new Builder(invocationInputFactory);
   }
 
+  public Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * @return number of requests waiting for a thread of the default async executor, or -1 if a
+   *     custom executor not exposing its queue is used
+   */
+  public int getAsyncQueueSize() {
+    return asyncExecutor.getQueueSize();
+  }
+
+  /** @return number of requests rejected with 503 because the async executor was saturated */
+  public long getAsyncRejectedCount() {
+    return asyncExecutor.getRejectedTaskCount();
+  }
+
   public GraphQLInvocationInputFactory getInvocationInputFactory() {
     return invocationInputFactory;
   }
@@ -146,8 +199,22 @@ public class GraphQLConfiguration {
     private GraphQLResponseCacheManager responseCacheManager;
     private int asyncCorePoolSize = 10;
     private int asyncMaxPoolSize = 200;
+    private int asyncQueueCapacity = Integer.MAX_VALUE;
+    private RejectedExecutionHandler asyncRejectionPolicy = new ThreadPoolExecutor.AbortPolicy();
+    private int asyncRetryAfter = 1;
+    private boolean asyncVirtualThreads = false;
     private Executor asyncExecutor;
     private AsyncTaskDecorator asyncTaskDecorator;
+    private boolean streamResponses = false;
+    private boolean incrementalBatchDelivery = false;
+    private boolean nonBlockingIO = false;
+    private int maxRequestBodySize = 10 * 1024 * 1024;
+    private int subscriptionDemand = 1;
+    private int subscriptionBufferSize = 256;
+    private SlowConsumerPolicy subscriptionSlowConsumerPolicy = SlowConsumerPolicy.BACKPRESSURE;
+    private SlowConsumerPolicy webSocketSlowConsumerPolicy = SlowConsumerPolicy.DROP_OLDEST;
+    private int webSocketOutboundQueueCapacity = WebSocketOutboundQueue.DEFAULT_CAPACITY;
+    private PreparsedDocumentProvider preparsedDocumentProvider;
 
     private Builder(GraphQLInvocationInputFactory.Builder invocationInputFactoryBuilder) {
       this.invocationInputFactoryBuilder = invocationInputFactoryBuilder;
@@ -193,6 +260,31 @@ public class GraphQLConfiguration {
       return this;
     }
 
+    public Builder with(PersistedQueryStore persistedQueryStore) {
+      this.invocationInputFactoryBuilder.withPersistedQueryStore(persistedQueryStore);
+      return this;
+    }
+
+    /**
+     * Uses the given provider, e.g. a {@link CachingPreparsedDocumentProvider}, instead of the one
+     * configured on the {@link GraphQLQueryInvoker}. Has no effect if a {@link GraphQLInvoker} is
+     * set explicitly.
+     */
+    public Builder with(PreparsedDocumentProvider preparsedDocumentProvider) {
+      this.preparsedDocumentProvider = preparsedDocumentProvider;
+      return this;
+    }
+
+    /**
+     * Caches parsed and validated documents of up to {@code maxSize} distinct queries.
+     *
+     * @param maxSize maximum number of cached documents
+     * @return this builder
+     */
+    public Builder preparsedDocumentCache(int maxSize) {
+      return with(new CachingPreparsedDocumentProvider(maxSize));
+    }
+
     public Builder with(long subscriptionTimeout) {
       this.subscriptionTimeout = subscriptionTimeout;
       return this;
@@ -218,6 +310,42 @@ public class GraphQLConfiguration {
       return this;
     }
 
+    /**
+     * Bounds the queue of the default async executor. Once the queue is full the pool grows up to
+     * {@link #asyncMaxPoolSize(int)} threads, after which requests are handled by the {@link
+     * #asyncRejectionPolicy(RejectedExecutionHandler) rejection policy}. Unbounded by default.
+     */
+    public Builder asyncQueueCapacity(int asyncQueueCapacity) {
+      this.asyncQueueCapacity = asyncQueueCapacity;
+      return this;
+    }
+
+    /**
+     * Policy of the default async executor for requests that cannot be queued. The default aborts
+     * them, which is answered with status 503 and a Retry-After header.
+     */
+    public Builder asyncRejectionPolicy(RejectedExecutionHandler asyncRejectionPolicy) {
+      if (asyncRejectionPolicy != null) {
+        this.asyncRejectionPolicy = asyncRejectionPolicy;
+      }
+      return this;
+    }
+
+    /**
+     * Execute every async request on its own virtual thread instead of the default thread pool.
+     * Requires Java 21 or newer; pool size and queue settings are ignored in this mode.
+     */
+    public Builder asyncVirtualThreads(boolean asyncVirtualThreads) {
+      this.asyncVirtualThreads = asyncVirtualThreads;
+      return this;
+    }
+
+    /** Seconds sent in the Retry-After header when a request is rejected. */
+    public Builder asyncRetryAfter(int asyncRetryAfter) {
+      this.asyncRetryAfter = asyncRetryAfter;
+      return this;
+    }
+
     public Builder with(ContextSetting contextSetting) {
       if (contextSetting != null) {
         this.contextSetting = contextSetting;
@@ -249,28 +377,137 @@ public class GraphQLConfiguration {
       return this;
     }
 
+    /**
+     * Serialize single and batched results directly into the response output stream instead of
+     * buffering them first. This bounds the memory needed for large responses at the cost of not
+     * sending a Content-Length header.
+     */
+    public Builder streamResponses(boolean streamResponses) {
+      this.streamResponses = streamResponses;
+      return this;
+    }
+
+    /**
+     * Allow clients accepting {@code multipart/mixed} to receive each result of a batched request as
+     * soon as it completes instead of waiting for the whole batch.
+     */
+    public Builder incrementalBatchDelivery(boolean incrementalBatchDelivery) {
+      this.incrementalBatchDelivery = incrementalBatchDelivery;
+      return this;
+    }
+
+    /**
+     * Read POST bodies and write single and batched results with a {@code ReadListener} and {@code
+     * WriteListener}, so slow clients don't hold on to container or async executor threads. Only
+     * applies to requests with async support. Responses are buffered in memory before they are
+     * written, so this takes precedence over {@link #streamResponses(boolean)}.
+     */
+    public Builder nonBlockingIO(boolean nonBlockingIO) {
+      this.nonBlockingIO = nonBlockingIO;
+      return this;
+    }
+
+    /**
+     * Maximum size in bytes of a POST body read in non-blocking mode, defaults to 10 MiB. Larger
+     * bodies are rejected with 413 Payload Too Large.
+     */
+    public Builder maxRequestBodySize(int maxRequestBodySize) {
+      this.maxRequestBodySize = maxRequestBodySize;
+      return this;
+    }
+
+    /**
+     * Number of events requested at a time from the publisher of a subscription streamed as
+     * server-sent events. Events arriving while earlier ones are written are sent with one flush.
+     */
+    public Builder subscriptionDemand(int subscriptionDemand) {
+      this.subscriptionDemand = subscriptionDemand;
+      return this;
+    }
+
+    /**
+     * Number of server-sent events kept per subscription while the client is slower than the
+     * publisher. Only used if the slow consumer policy is not {@link
+     * SlowConsumerPolicy#BACKPRESSURE}.
+     */
+    public Builder subscriptionBufferSize(int subscriptionBufferSize) {
+      this.subscriptionBufferSize = subscriptionBufferSize;
+      return this;
+    }
+
+    /** What to do with server-sent events a client does not read fast enough. */
+    public Builder subscriptionSlowConsumerPolicy(
+        SlowConsumerPolicy subscriptionSlowConsumerPolicy) {
+      if (subscriptionSlowConsumerPolicy != null) {
+        this.subscriptionSlowConsumerPolicy = subscriptionSlowConsumerPolicy;
+      }
+      return this;
+    }
+
+    /**
+     * What to do with websocket messages a client does not read fast enough, defaults to {@link
+     * SlowConsumerPolicy#DROP_OLDEST}. {@link SlowConsumerPolicy#BACKPRESSURE} blocks the thread
+     * publishing subscription data, which may be an execution or container thread, for as long as
+     * the client is slow.
+     */
+    public Builder webSocketSlowConsumerPolicy(SlowConsumerPolicy webSocketSlowConsumerPolicy) {
+      if (webSocketSlowConsumerPolicy != null) {
+        this.webSocketSlowConsumerPolicy = webSocketSlowConsumerPolicy;
+      }
+      return this;
+    }
+
+    /**
+     * Number of messages kept per websocket session while the client is slower than the
+     * publisher, after which the websocket slow consumer policy applies.
+     */
+    public Builder webSocketOutboundQueueCapacity(int webSocketOutboundQueueCapacity) {
+      this.webSocketOutboundQueueCapacity = webSocketOutboundQueueCapacity;
+      return this;
+    }
+
     private Executor getAsyncExecutor() {
       if (asyncExecutor != null) {
         return asyncExecutor;
       }
+      if (asyncVirtualThreads) {
+        return newVirtualThreadPerTaskExecutor();
+      }
       return new ThreadPoolExecutor(
           asyncCorePoolSize,
           asyncMaxPoolSize,
           60,
           TimeUnit.SECONDS,
-          new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+          new LinkedBlockingQueue<>(asyncQueueCapacity),
+          asyncRejectionPolicy);
     }
 
-    private Executor getAsyncTaskExecutor() {
+    private Executor newVirtualThreadPerTaskExecutor() {
+      // looked up reflectively as long as the library is compiled for Java 11
+      try {
+        return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Virtual threads require Java 21 or newer", e);
+      }
+    }
+
+    private AsyncTaskExecutor getAsyncTaskExecutor() {
       return new AsyncTaskExecutor(getAsyncExecutor(), asyncTaskDecorator);
     }
 
+    private Supplier<PreparsedDocumentProvider> getPreparsedDocumentProvider() {
+      PreparsedDocumentProvider provider = preparsedDocumentProvider;
+      return () -> provider;
+    }
+
     public GraphQLConfiguration build() {
       return new GraphQLConfiguration(
           this.invocationInputFactory != null
               ? this.invocationInputFactory
               : invocationInputFactoryBuilder.build(),
-          graphQLInvoker,
+          graphQLInvoker != null || preparsedDocumentProvider == null
+              ? graphQLInvoker
+              : queryInvoker.toGraphQLInvoker(getPreparsedDocumentProvider()),
           queryInvoker,
           objectMapper,
           listeners,
@@ -279,7 +516,17 @@ public class GraphQLConfiguration {
           contextSetting,
           batchInputPreProcessorSupplier,
           responseCacheManager,
-          getAsyncTaskExecutor());
+          getAsyncTaskExecutor(),
+          asyncRetryAfter,
+          streamResponses,
+          incrementalBatchDelivery,
+          nonBlockingIO,
+          maxRequestBodySize,
+          subscriptionDemand,
+          subscriptionBufferSize,
+          subscriptionSlowConsumerPolicy,
+          webSocketSlowConsumerPolicy,
+          webSocketOutboundQueueCapacity);
     }
   }
 }
@@ -33,13 +33,14 @@ class GraphQLGetInvocationInputParser extends AbstractGraphQLInvocationInputPars
     }
 
     String query = request.getParameter("query");
-    if (query == null) {
+    Map<String, Object> extensions = getExtensions(request);
+    // a persisted query may be referenced by its hash in the extensions alone
+    if (query == null && !extensions.containsKey("persistedQuery")) {
       throw new GraphQLException("Query parameter not found in GET request");
     }
 
-    if (isSingleQuery(query)) {
+    if (query == null || isSingleQuery(query)) {
       Map<String, Object> variables = getVariables(request);
-      Map<String, Object> extensions = getExtensions(request);
       String operationName = request.getParameter("operationName");
       GraphQLRequest graphqlRequest =
           new GraphQLRequest(query, variables, extensions, operationName);
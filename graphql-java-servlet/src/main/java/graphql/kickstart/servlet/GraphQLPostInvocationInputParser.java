@@ -9,6 +9,9 @@ import graphql.kickstart.execution.context.ContextSetting;
 import graphql.kickstart.execution.input.GraphQLInvocationInput;
 import graphql.kickstart.servlet.input.GraphQLInvocationInputFactory;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -33,6 +36,10 @@ class GraphQLPostInvocationInputParser extends AbstractGraphQLInvocationInputPar
       return invocationInputFactory.create(graphqlRequest, request, response);
     }
 
+    if (isUtf8(request.getCharacterEncoding())) {
+      return getGraphQLInvocationInput(request, response, request.getInputStream());
+    }
+
     String body = request.getReader().lines().collect(joining(" "));
     if (isSingleQuery(body)) {
       GraphQLRequest graphqlRequest = graphQLObjectMapper.readGraphQLRequest(body);
@@ -46,4 +53,39 @@ class GraphQLPostInvocationInputParser extends AbstractGraphQLInvocationInputPar
 
     throw new GraphQLException("No valid query found in request");
   }
+
+  private GraphQLInvocationInput getGraphQLInvocationInput(
+      HttpServletRequest request, HttpServletResponse response, InputStream body)
+      throws IOException {
+    // Feed the body straight into Jackson instead of materializing it as a String first. The
+    // first non-whitespace byte tells a single request apart from a batch.
+    PushbackInputStream inputStream = new PushbackInputStream(body, 1);
+    int first = readFirstNonWhitespace(inputStream);
+    if (first == -1) {
+      throw new GraphQLException("No valid query found in request");
+    }
+    inputStream.unread(first);
+
+    if (first == '[') {
+      List<GraphQLRequest> requests = graphQLObjectMapper.readBatchedGraphQLRequest(inputStream);
+      return invocationInputFactory.create(contextSetting, requests, request, response);
+    }
+
+    GraphQLRequest graphqlRequest = graphQLObjectMapper.readGraphQLRequest(inputStream);
+    return invocationInputFactory.create(graphqlRequest, request, response);
+  }
+
+  private int readFirstNonWhitespace(InputStream inputStream) throws IOException {
+    int b;
+    do {
+      b = inputStream.read();
+    } while (b == ' ' || b == '\t' || b == '\n' || b == '\r');
+    return b;
+  }
+
+  private boolean isUtf8(String characterEncoding) {
+    return characterEncoding == null
+        || StandardCharsets.UTF_8.name().equalsIgnoreCase(characterEncoding)
+        || "UTF8".equalsIgnoreCase(characterEncoding);
+  }
 }
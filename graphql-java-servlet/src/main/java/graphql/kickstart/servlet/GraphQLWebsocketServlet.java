@@ -1,7 +1,6 @@
 package graphql.kickstart.servlet;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
 import graphql.kickstart.execution.GraphQLInvoker;
@@ -13,20 +12,27 @@ import graphql.kickstart.execution.subscriptions.SubscriptionConnectionListener;
 import graphql.kickstart.execution.subscriptions.SubscriptionProtocolFactory;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
 import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionConnectionListener;
+import graphql.kickstart.execution.subscriptions.apollo.KeepAliveSubscriptionConnectionListener;
+import graphql.kickstart.execution.subscriptions.transportws.ApolloConnectionListenerAdapter;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionConnectionListener;
 import graphql.kickstart.servlet.apollo.ApolloWebSocketSubscriptionProtocolFactory;
 import graphql.kickstart.servlet.subscriptions.FallbackSubscriptionProtocolFactory;
+import graphql.kickstart.servlet.subscriptions.QueuedSubscriptionSession;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundMetrics;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
 import graphql.kickstart.servlet.subscriptions.WebSocketSendSubscriber;
 import graphql.kickstart.servlet.subscriptions.WebSocketSubscriptionProtocolFactory;
+import graphql.kickstart.servlet.transportws.TransportWsWebSocketSubscriptionProtocolFactory;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import jakarta.websocket.CloseReason;
@@ -62,9 +68,14 @@ public class GraphQLWebsocketServlet extends Endpoint {
 
   private final Map<Session, SessionSubscriptions> sessionSubscriptionCache =
       new ConcurrentHashMap<>();
+  private final Map<Session, WebSocketOutboundQueue> outboundQueues = new ConcurrentHashMap<>();
   private final AtomicBoolean isShuttingDown = new AtomicBoolean(false);
   private final AtomicBoolean isShutDown = new AtomicBoolean(false);
-  private final Object cacheLock = new Object();
+  private final LongAdder sessionCount = new LongAdder();
+  private final LongAdder subscriptionCount = new LongAdder();
+  private final WebSocketOutboundMetrics outboundMetrics = new WebSocketOutboundMetrics();
+  private int outboundQueueCapacity = WebSocketOutboundQueue.DEFAULT_CAPACITY;
+  private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP_OLDEST;
 
   public GraphQLWebsocketServlet(GraphQLConfiguration configuration) {
     this(configuration, null);
@@ -78,6 +89,8 @@ public class GraphQLWebsocketServlet extends Endpoint {
         configuration.getInvocationInputFactory(),
         configuration.getObjectMapper(),
         connectionListeners);
+    outboundQueueCapacity = configuration.getWebSocketOutboundQueueCapacity();
+    slowConsumerPolicy = configuration.getWebSocketSlowConsumerPolicy();
   }
 
   public GraphQLWebsocketServlet(
@@ -93,14 +106,27 @@ public class GraphQLWebsocketServlet extends Endpoint {
       GraphQLObjectMapper graphQLObjectMapper,
       Collection<SubscriptionConnectionListener> connectionListeners) {
     List<ApolloSubscriptionConnectionListener> listeners = new ArrayList<>();
+    List<TransportWsSubscriptionConnectionListener> transportWsListeners = new ArrayList<>();
     if (connectionListeners != null) {
       connectionListeners.stream()
           .filter(ApolloSubscriptionConnectionListener.class::isInstance)
           .map(ApolloSubscriptionConnectionListener.class::cast)
           .forEach(listeners::add);
+      // the keep-alive messages of graphql-ws are no valid graphql-transport-ws messages
+      listeners.stream()
+          .filter(it -> !(it instanceof KeepAliveSubscriptionConnectionListener))
+          .filter(it -> !(it instanceof TransportWsSubscriptionConnectionListener))
+          .map(ApolloConnectionListenerAdapter::new)
+          .forEach(transportWsListeners::add);
+      connectionListeners.stream()
+          .filter(TransportWsSubscriptionConnectionListener.class::isInstance)
+          .map(TransportWsSubscriptionConnectionListener.class::cast)
+          .forEach(transportWsListeners::add);
     }
     subscriptionProtocolFactories =
-        singletonList(
+        asList(
+            new TransportWsWebSocketSubscriptionProtocolFactory(
+                graphQLObjectMapper, invocationInputFactory, graphQLInvoker, transportWsListeners),
             new ApolloWebSocketSubscriptionProtocolFactory(
                 graphQLObjectMapper, invocationInputFactory, graphQLInvoker, listeners));
     fallbackSubscriptionProtocolFactory =
@@ -137,16 +163,29 @@ public class GraphQLWebsocketServlet extends Endpoint {
         (WebSocketSubscriptionProtocolFactory)
             endpointConfig.getUserProperties().get(PROTOCOL_FACTORY_REQUEST_KEY);
 
-    SubscriptionSession subscriptionSession = subscriptionProtocolFactory.createSession(session);
-    synchronized (cacheLock) {
-      if (isShuttingDown.get()) {
-        throw new IllegalStateException("Server is shutting down!");
-      }
-
-      sessionSubscriptionCache.put(session, subscriptionSession.getSubscriptions());
+    WebSocketOutboundQueue outboundQueue =
+        new WebSocketOutboundQueue(
+            session, outboundQueueCapacity, slowConsumerPolicy, outboundMetrics);
+    SubscriptionSession subscriptionSession =
+        subscriptionProtocolFactory.createSession(session, outboundQueue);
+    if (isShuttingDown.get()) {
+      throw new IllegalStateException("Server is shutting down!");
+    }
+    outboundQueues.put(session, outboundQueue);
+    SessionSubscriptions subscriptions = subscriptionSession.getSubscriptions();
+    subscriptions.setSubscriptionCounter(subscriptionCount);
+    if (sessionSubscriptionCache.putIfAbsent(session, subscriptions) == null) {
+      sessionCount.increment();
+    }
+    // a shutdown that started after the check above may have missed this session
+    if (isShuttingDown.get()) {
+      unregister(session, SHUTDOWN_CLOSE_REASON);
+      throw new IllegalStateException("Server is shutting down!");
     }
 
-    subscriptionSession.getPublisher().subscribe(new WebSocketSendSubscriber(session));
+    if (!(subscriptionSession instanceof QueuedSubscriptionSession)) {
+      subscriptionSession.getPublisher().subscribe(new WebSocketSendSubscriber(session));
+    }
 
     log.debug("Session opened: {}, {}", session.getId(), endpointConfig);
     Consumer<String> consumer = subscriptionProtocolFactory.createConsumer(subscriptionSession);
@@ -169,11 +208,32 @@ public class GraphQLWebsocketServlet extends Endpoint {
   @Override
   public void onClose(Session session, CloseReason closeReason) {
     log.debug("Session closed: {}, {}", session.getId(), closeReason);
-    SessionSubscriptions subscriptions;
-    synchronized (cacheLock) {
-      subscriptions = sessionSubscriptionCache.remove(session);
+    unregister(session);
+  }
+
+  private void unregister(Session session) {
+    unregister(session, null);
+  }
+
+  /**
+   * Cancels the subscriptions of the session and closes it with the given reason once its pending
+   * messages are sent.
+   */
+  private void unregister(Session session, CloseReason closeReason) {
+    WebSocketOutboundQueue outboundQueue = outboundQueues.remove(session);
+    if (outboundQueue != null) {
+      // releases publishers waiting for room in the queue right away
+      outboundQueue.close(closeReason);
+    } else if (closeReason != null) {
+      try {
+        session.close(closeReason);
+      } catch (IOException e) {
+        log.error("Error closing websocket session!", e);
+      }
     }
+    SessionSubscriptions subscriptions = sessionSubscriptionCache.remove(session);
     if (subscriptions != null) {
+      sessionCount.decrement();
       subscriptions.close();
     }
   }
@@ -227,36 +287,25 @@ public class GraphQLWebsocketServlet extends Endpoint {
 
   /** Stops accepting connections and closes all existing connections */
   public void beginShutDown() {
-    synchronized (cacheLock) {
-      isShuttingDown.set(true);
-      Map<Session, SessionSubscriptions> copy = new HashMap<>(sessionSubscriptionCache);
-
-      // Prevent comodification exception since #onClose() is called during session.close(), but we
-      // can't necessarily rely on that happening so we close subscriptions here anyway.
-      copy.forEach(
-          (session, wsSessionSubscriptions) -> {
-            wsSessionSubscriptions.close();
-            try {
-              session.close(SHUTDOWN_CLOSE_REASON);
-            } catch (IOException e) {
-              log.error("Error closing websocket session!", e);
-            }
-          });
-
-      copy.clear();
+    isShuttingDown.set(true);
 
-      if (!sessionSubscriptionCache.isEmpty()) {
-        log.error("GraphQLWebsocketServlet did not shut down cleanly!");
-        sessionSubscriptionCache.clear();
-      }
+    // sessions opening from now on unregister themselves, and the iteration of the concurrent map
+    // is safe while #onClose() removes the sessions closed here
+    for (Session session : sessionSubscriptionCache.keySet()) {
+      unregister(session, SHUTDOWN_CLOSE_REASON);
+    }
 
-      for (SubscriptionProtocolFactory protocolFactory : subscriptionProtocolFactories) {
-        protocolFactory.shutdown();
-      }
+    if (!sessionSubscriptionCache.isEmpty()) {
+      log.error("GraphQLWebsocketServlet did not shut down cleanly!");
+      sessionSubscriptionCache.keySet().forEach(this::unregister);
+    }
 
-      fallbackSubscriptionProtocolFactory.shutdown();
+    for (SubscriptionProtocolFactory protocolFactory : subscriptionProtocolFactories) {
+      protocolFactory.shutdown();
     }
 
+    fallbackSubscriptionProtocolFactory.shutdown();
+
     isShutDown.set(true);
   }
 
@@ -279,12 +328,15 @@ public class GraphQLWebsocketServlet extends Endpoint {
   }
 
   public int getSessionCount() {
-    return sessionSubscriptionCache.size();
+    return sessionCount.intValue();
   }
 
   public int getSubscriptionCount() {
-    return sessionSubscriptionCache.values().stream()
-        .mapToInt(SessionSubscriptions::getSubscriptionCount)
-        .sum();
+    return subscriptionCount.intValue();
+  }
+
+  /** @return queue depth and drop counters of the outbound queues of all sessions */
+  public WebSocketOutboundMetrics getOutboundMetrics() {
+    return outboundMetrics;
   }
 }
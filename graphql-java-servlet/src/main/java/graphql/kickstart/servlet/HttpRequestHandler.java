@@ -11,7 +11,9 @@ public interface HttpRequestHandler {
 
   int STATUS_OK = 200;
   int STATUS_BAD_REQUEST = 400;
+  int STATUS_PAYLOAD_TOO_LARGE = 413;
   int STATUS_INTERNAL_SERVER_ERROR = 500;
+  int STATUS_SERVICE_UNAVAILABLE = 503;
 
   void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
 }
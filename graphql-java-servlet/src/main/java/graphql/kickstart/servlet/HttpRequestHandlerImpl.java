@@ -1,7 +1,9 @@
 package graphql.kickstart.servlet;
 
+import graphql.ExecutionResultImpl;
 import graphql.GraphQLException;
 import graphql.kickstart.execution.input.GraphQLInvocationInput;
+import graphql.kickstart.execution.persisted.PersistedQueryException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import jakarta.servlet.http.HttpServletRequest;
@@ -38,9 +40,46 @@ class HttpRequestHandlerImpl implements HttpRequestHandler {
     ListenerHandler listenerHandler =
       ListenerHandler.start(request, response, configuration.getListeners());
 
+    if (configuration.isNonBlockingIO() && NonBlockingRequestReader.canRead(request)) {
+      NonBlockingRequestReader.read(
+          request,
+          response,
+          configuration.getAsyncTimeout(),
+          configuration.getMaxRequestBodySize(),
+          listenerHandler,
+          bufferedRequest -> handleReadRequest(bufferedRequest, response, listenerHandler));
+      return;
+    }
+    handle(request, response, listenerHandler);
+  }
+
+  private void handleReadRequest(
+      HttpServletRequest request, HttpServletResponse response, ListenerHandler listenerHandler) {
+    try {
+      handle(request, response, listenerHandler);
+    } catch (Exception e) {
+      // already logged with the response status set, there is no caller left to rethrow to
+      request.getAsyncContext().complete();
+    }
+  }
+
+  private void handle(
+      HttpServletRequest request, HttpServletResponse response, ListenerHandler listenerHandler)
+      throws IOException {
     try {
       GraphQLInvocationInput invocationInput = parseInvocationInput(request, response);
       requestInvoker.execute(invocationInput, request, response, listenerHandler);
+    } catch (PersistedQueryException e) {
+      // answered as a regular GraphQL error so clients know to retry with the full query
+      log.debug("Cannot resolve persisted query: {}", e.getMessage());
+      listenerHandler.onParseError(e);
+      new SingleQueryResponseWriter(
+              ExecutionResultImpl.newExecutionResult().addError(e).build(),
+              configuration.getObjectMapper())
+          .write(request, response);
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().complete();
+      }
     } catch (InvocationInputParseException e) {
       response.setStatus(STATUS_BAD_REQUEST);
       log.info("Bad request: cannot parse http request", e);
@@ -68,6 +107,8 @@ class HttpRequestHandlerImpl implements HttpRequestHandler {
           configuration.getObjectMapper(),
           configuration.getContextSetting());
       return invocationInputParser.getGraphQLInvocationInput(request, response);
+    } catch (PersistedQueryException e) {
+      throw e;
     } catch (Exception e) {
       throw new InvocationInputParseException(e);
     }
@@ -2,6 +2,7 @@ package graphql.kickstart.servlet;
 
 import static graphql.kickstart.servlet.HttpRequestHandler.STATUS_BAD_REQUEST;
 import static graphql.kickstart.servlet.HttpRequestHandler.STATUS_INTERNAL_SERVER_ERROR;
+import static graphql.kickstart.servlet.HttpRequestHandler.STATUS_SERVICE_UNAVAILABLE;
 
 import graphql.ExecutionResult;
 import graphql.ExecutionResultImpl;
@@ -20,8 +21,10 @@ import java.io.UncheckedIOException;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -71,32 +74,46 @@ public class HttpRequestInvokerImpl implements HttpRequestInvoker {
           if (futureResult != null) {
             futureResult.cancel();
           } else {
+            // the container completes the request after the timeout, so don't wait for the client
             writeErrorResponse(
-                invocationInput, request, response, listenerHandler, new CancellationException());
+                invocationInput,
+                request,
+                response,
+                listenerHandler,
+                new CancellationException(),
+                false);
           }
         };
     asyncContext.addListener(timeoutListener);
-    configuration
-        .getAsyncExecutor()
-        .execute(
-            () -> {
-              try {
-                FutureExecutionResult futureResult = invoke(invocationInput, request, response);
-                futureHolder.set(futureResult);
-                handleInternal(futureResult, request, response, listenerHandler)
-                    .thenAccept(it -> asyncContext.complete());
-              } catch (GraphQLException e) {
-                response.setStatus(STATUS_BAD_REQUEST);
-                log.info("Bad request: cannot handle http request", e);
-                listenerHandler.onError(e);
-                asyncContext.complete();
-              } catch (Exception e) {
-                response.setStatus(STATUS_INTERNAL_SERVER_ERROR);
-                log.error("Cannot handle http request", e);
-                listenerHandler.onError(e);
-                asyncContext.complete();
-              }
-            });
+    try {
+      configuration
+          .getAsyncExecutor()
+          .execute(
+              () -> {
+                try {
+                  FutureExecutionResult futureResult = invoke(invocationInput, request, response);
+                  futureHolder.set(futureResult);
+                  handleInternal(futureResult, request, response, listenerHandler)
+                      .thenAccept(it -> asyncContext.complete());
+                } catch (GraphQLException e) {
+                  response.setStatus(STATUS_BAD_REQUEST);
+                  log.info("Bad request: cannot handle http request", e);
+                  listenerHandler.onError(e);
+                  asyncContext.complete();
+                } catch (Exception e) {
+                  response.setStatus(STATUS_INTERNAL_SERVER_ERROR);
+                  log.error("Cannot handle http request", e);
+                  listenerHandler.onError(e);
+                  asyncContext.complete();
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      log.warn("Rejected GraphQL request because the async executor is saturated");
+      response.setStatus(STATUS_SERVICE_UNAVAILABLE);
+      response.setHeader("Retry-After", String.valueOf(configuration.getAsyncRetryAfter()));
+      listenerHandler.onError(e);
+      asyncContext.complete();
+    }
   }
 
   private void handle(
@@ -127,50 +144,88 @@ public class HttpRequestInvokerImpl implements HttpRequestInvoker {
       HttpServletRequest request,
       HttpServletResponse response,
       ListenerHandler listenerHandler) {
-    return futureResult
-        .thenApplyQueryResult()
-        .thenAccept(
+    CompletableFuture<GraphQLQueryResult> queryResult =
+        acceptsIncrementalDelivery(request)
+            ? futureResult.thenApplyIncrementalQueryResult()
+            : futureResult.thenApplyQueryResult();
+    return queryResult
+        .thenCompose(
             it -> {
               listenerHandler.beforeFlush();
-              writeResultResponse(futureResult.getInvocationInput(), it, request, response);
+              return writeResultResponse(
+                  futureResult.getInvocationInput(), it, request, response, true);
             })
         .thenAccept(it -> listenerHandler.onSuccess())
-        .exceptionally(
-            t ->
-                writeErrorResponse(
-                    futureResult.getInvocationInput(), request, response, listenerHandler, t))
+        .handle(
+            (it, t) ->
+                t == null
+                    ? CompletableFuture.<Void>completedFuture(null)
+                    : writeErrorResponse(
+                        futureResult.getInvocationInput(),
+                        request,
+                        response,
+                        listenerHandler,
+                        t,
+                        true))
+        .thenCompose(Function.identity())
         .thenAccept(it -> listenerHandler.onFinally());
   }
 
-  private void writeResultResponse(
+  private boolean acceptsIncrementalDelivery(HttpServletRequest request) {
+    if (!configuration.isIncrementalBatchDelivery()) {
+      return false;
+    }
+    String accept = request.getHeader("Accept");
+    return accept != null && accept.contains(IncrementalBatchedQueryResponseWriter.MULTIPART_MIXED);
+  }
+
+  private CompletableFuture<Void> writeResultResponse(
       GraphQLInvocationInput invocationInput,
       GraphQLQueryResult queryResult,
       HttpServletRequest request,
-      HttpServletResponse response) {
+      HttpServletResponse response,
+      boolean allowNonBlocking) {
     QueryResponseWriter queryResponseWriter = createWriter(invocationInput, queryResult);
     try {
-      queryResponseWriter.write(request, response);
+      if (allowNonBlocking && writesNonBlocking(queryResult, request)) {
+        return NonBlockingResponseWriter.write(queryResponseWriter, request, response);
+      }
+      return queryResponseWriter.writeAsync(request, response);
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
-  private Void writeErrorResponse(
+  private boolean writesNonBlocking(GraphQLQueryResult queryResult, HttpServletRequest request) {
+    // subscriptions and incremental batches are written as their results arrive
+    return configuration.isNonBlockingIO()
+        && request.isAsyncStarted()
+        && !queryResult.isAsynchronous()
+        && !queryResult.isIncremental();
+  }
+
+  private CompletableFuture<Void> writeErrorResponse(
       GraphQLInvocationInput invocationInput,
       HttpServletRequest request,
       HttpServletResponse response,
       ListenerHandler listenerHandler,
-      Throwable t) {
+      Throwable t,
+      boolean allowNonBlocking) {
     Throwable cause = getCause(t);
     if (!response.isCommitted()) {
-      writeResultResponse(
-          invocationInput, GraphQLQueryResult.create(toErrorResult(cause)), request, response);
+      CompletableFuture<Void> written =
+          writeResultResponse(
+              invocationInput,
+              GraphQLQueryResult.create(toErrorResult(cause)),
+              request,
+              response,
+              allowNonBlocking);
       listenerHandler.onError(cause);
-    } else {
-      log.warn(
-          "Cannot write GraphQL response, because the HTTP response is already committed. It most likely timed out.");
+      return written;
     }
-    return null;
+    log.warn(
+        "Cannot write GraphQL response, because the HTTP response is already committed. It most likely timed out.");
+    return CompletableFuture.completedFuture(null);
   }
 
   private Throwable getCause(Throwable t) {
@@ -213,7 +268,10 @@ public class HttpRequestInvokerImpl implements HttpRequestInvoker {
     BatchInputPreProcessResult result =
         preprocessor.preProcessBatch(batchedInvocationInput, request, response);
     if (result.isExecutable()) {
-      return graphQLInvoker.execute(result.getBatchedInvocationInput());
+      int maxInFlight = result.getMaxInFlight();
+      return maxInFlight > 0
+          ? graphQLInvoker.execute(result.getBatchedInvocationInput(), maxInFlight)
+          : graphQLInvoker.execute(result.getBatchedInvocationInput());
     }
 
     return FutureExecutionResult.error(
@@ -0,0 +1,98 @@
+package graphql.kickstart.servlet;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.error.GenericGraphQLError;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes every result of a batch as its own {@code multipart/mixed} part as soon as the query
+ * completes, so fast queries are not held back by the slowest one. Parts are written in completion
+ * order and each payload carries the {@code index} of its query within the batch.
+ */
+@RequiredArgsConstructor
+class IncrementalBatchedQueryResponseWriter implements QueryResponseWriter {
+
+  static final String MULTIPART_MIXED = "multipart/mixed";
+
+  private static final byte[] PART_HEADER =
+      "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n"
+          .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] CLOSE_DELIMITER = "\r\n-----\r\n".getBytes(StandardCharsets.UTF_8);
+
+  private final List<CompletableFuture<ExecutionResult>> results;
+  private final GraphQLObjectMapper graphQLObjectMapper;
+
+  @Override
+  public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType(MULTIPART_MIXED + "; boundary=\"-\"");
+    response.setStatus(HttpRequestHandler.STATUS_OK);
+
+    BlockingQueue<Map<String, Object>> completed = new LinkedBlockingQueue<>();
+    for (int i = 0; i < results.size(); i++) {
+      int index = i;
+      results.get(i).whenComplete((result, t) -> completed.add(toPayload(index, result, t)));
+    }
+
+    ServletOutputStream outputStream = response.getOutputStream();
+    try {
+      for (int i = 0; i < results.size(); i++) {
+        Map<String, Object> payload = completed.take();
+        outputStream.write(PART_HEADER);
+        try (JsonGenerator generator = graphQLObjectMapper.createJsonGenerator(outputStream)) {
+          graphQLObjectMapper.getJacksonMapper().writeValue(generator, payload);
+        }
+        outputStream.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // leave out the closing boundary so the client does not take the response as complete
+      InterruptedIOException ex =
+          new InterruptedIOException("Interrupted while waiting for batched results");
+      ex.initCause(e);
+      throw ex;
+    }
+    outputStream.write(CLOSE_DELIMITER);
+    outputStream.flush();
+  }
+
+  private Map<String, Object> toPayload(int index, ExecutionResult result, Throwable t) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("index", index);
+    try {
+      payload.putAll(
+          graphQLObjectMapper.createResultFromExecutionResult(
+              t == null ? result : toErrorResult(t)));
+    } catch (Exception e) {
+      // every index must produce a part, otherwise the writer would wait for it forever
+      payload.putAll(graphQLObjectMapper.createResultFromExecutionResult(toErrorResult(e)));
+    }
+    return payload;
+  }
+
+  private ExecutionResult toErrorResult(Throwable t) {
+    Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    String message =
+        cause instanceof CancellationException ? "Execution canceled" : cause.getMessage();
+    if (message == null) {
+      message = "Unexpected error occurred";
+    }
+    return new ExecutionResultImpl(new GenericGraphQLError(message));
+  }
+}
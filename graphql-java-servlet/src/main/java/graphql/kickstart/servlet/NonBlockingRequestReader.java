@@ -0,0 +1,132 @@
+package graphql.kickstart.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads a request body with a {@link ReadListener}, so no thread waits for a slow client while
+ * the body is uploaded. Once all data has been read the request is handed on as a {@link
+ * BufferedHttpServletRequest}. Bodies larger than the configured maximum are rejected with 413
+ * Payload Too Large; the declared content length is only used to reject them early, never to
+ * size the buffer.
+ */
+@Slf4j
+class NonBlockingRequestReader implements ReadListener {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private final ServletInputStream inputStream;
+  private final AsyncContext asyncContext;
+  private final HttpServletRequest request;
+  private final HttpServletResponse response;
+  private final int maxBodySize;
+  private final ListenerHandler listenerHandler;
+  private final Consumer<HttpServletRequest> onAllDataRead;
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream(CHUNK_SIZE);
+  private final byte[] buffer = new byte[CHUNK_SIZE];
+  private boolean rejected;
+
+  private NonBlockingRequestReader(
+      ServletInputStream inputStream,
+      AsyncContext asyncContext,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      int maxBodySize,
+      ListenerHandler listenerHandler,
+      Consumer<HttpServletRequest> onAllDataRead) {
+    this.inputStream = inputStream;
+    this.asyncContext = asyncContext;
+    this.request = request;
+    this.response = response;
+    this.maxBodySize = maxBodySize;
+    this.listenerHandler = listenerHandler;
+    this.onAllDataRead = onAllDataRead;
+  }
+
+  /** @return whether the body of the request can be read without blocking */
+  static boolean canRead(HttpServletRequest request) {
+    String contentType = request.getContentType();
+    return request.isAsyncSupported()
+        && !request.isAsyncStarted()
+        && "POST".equalsIgnoreCase(request.getMethod())
+        && (contentType == null || !contentType.startsWith("multipart/form-data"));
+  }
+
+  /**
+   * Starts async processing of the request and reads its body. The request with the buffered body
+   * is passed to {@code onAllDataRead} on a container thread, which is then responsible for
+   * completing the async context.
+   */
+  static void read(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      long asyncTimeout,
+      int maxBodySize,
+      ListenerHandler listenerHandler,
+      Consumer<HttpServletRequest> onAllDataRead)
+      throws IOException {
+    if (request.getContentLengthLong() > maxBodySize) {
+      log.info("Request body of {} bytes exceeds the limit", request.getContentLengthLong());
+      response.setStatus(HttpRequestHandler.STATUS_PAYLOAD_TOO_LARGE);
+      listenerHandler.onFinally();
+      return;
+    }
+    AsyncContext asyncContext = request.startAsync(request, response);
+    asyncContext.setTimeout(asyncTimeout);
+    ServletInputStream inputStream = request.getInputStream();
+    inputStream.setReadListener(
+        new NonBlockingRequestReader(
+            inputStream,
+            asyncContext,
+            request,
+            response,
+            maxBodySize,
+            listenerHandler,
+            onAllDataRead));
+  }
+
+  @Override
+  public void onDataAvailable() throws IOException {
+    while (!rejected && inputStream.isReady()) {
+      int read = inputStream.read(buffer);
+      if (read == -1) {
+        return;
+      }
+      if (body.size() + read > maxBodySize) {
+        rejected = true;
+        log.info("Request body exceeds the limit of {} bytes", maxBodySize);
+        response.setStatus(HttpRequestHandler.STATUS_PAYLOAD_TOO_LARGE);
+        listenerHandler.onFinally();
+        asyncContext.complete();
+        return;
+      }
+      body.write(buffer, 0, read);
+    }
+  }
+
+  @Override
+  public void onAllDataRead() {
+    if (!rejected) {
+      onAllDataRead.accept(new BufferedHttpServletRequest(request, body.toByteArray()));
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    if (rejected) {
+      return;
+    }
+    log.info("Bad request: cannot read http request body", t);
+    response.setStatus(HttpRequestHandler.STATUS_BAD_REQUEST);
+    listenerHandler.onError(t);
+    listenerHandler.onFinally();
+    asyncContext.complete();
+  }
+}
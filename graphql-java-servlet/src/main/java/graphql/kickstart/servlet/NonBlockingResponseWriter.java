@@ -0,0 +1,157 @@
+package graphql.kickstart.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.CompletableFuture;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Lets a {@link QueryResponseWriter} write into memory and then sends the content to the client
+ * with a {@link WriteListener}, so no thread waits for a slow client while the response is
+ * downloaded.
+ */
+class NonBlockingResponseWriter implements WriteListener {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private final ServletOutputStream outputStream;
+  private final byte[] content;
+  private final CompletableFuture<Void> written = new CompletableFuture<>();
+  private int position;
+
+  private NonBlockingResponseWriter(ServletOutputStream outputStream, byte[] content) {
+    this.outputStream = outputStream;
+    this.content = content;
+  }
+
+  /**
+   * Writes the response of the given writer. Requires async processing to be started on the
+   * request.
+   *
+   * @return future completed once all content has been handed to the container
+   */
+  static CompletableFuture<Void> write(
+      QueryResponseWriter writer, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    BufferingHttpServletResponse bufferingResponse = new BufferingHttpServletResponse(response);
+    writer.write(request, bufferingResponse);
+    byte[] content = bufferingResponse.getContentAsByteArray();
+    if (content.length == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    ServletOutputStream outputStream = response.getOutputStream();
+    NonBlockingResponseWriter listener = new NonBlockingResponseWriter(outputStream, content);
+    outputStream.setWriteListener(listener);
+    return listener.written;
+  }
+
+  @Override
+  public void onWritePossible() throws IOException {
+    while (outputStream.isReady()) {
+      if (position == content.length) {
+        written.complete(null);
+        return;
+      }
+      int length = Math.min(CHUNK_SIZE, content.length - position);
+      outputStream.write(content, position, length);
+      position += length;
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    written.completeExceptionally(t);
+  }
+
+  /** Keeps everything written to the body in memory, other calls go to the wrapped response. */
+  private static final class BufferingHttpServletResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(CHUNK_SIZE);
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    private BufferingHttpServletResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      if (writer != null) {
+        throw new IllegalStateException("getWriter() has already been called on this response.");
+      }
+      if (outputStream == null) {
+        outputStream = new BufferingOutputStream(buffer);
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (outputStream != null) {
+        throw new IllegalStateException(
+            "getOutputStream() has already been called on this response.");
+      }
+      if (writer == null) {
+        writer = new PrintWriter(new OutputStreamWriter(buffer, getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+      if (writer != null) {
+        writer.flush();
+      }
+    }
+
+    @Override
+    public boolean isCommitted() {
+      return false;
+    }
+
+    private byte[] getContentAsByteArray() {
+      flushBuffer();
+      return buffer.toByteArray();
+    }
+  }
+
+  private static final class BufferingOutputStream extends ServletOutputStream {
+
+    private final ByteArrayOutputStream buffer;
+
+    private BufferingOutputStream(ByteArrayOutputStream buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+      buffer.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      buffer.write(b, off, len);
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      try {
+        writeListener.onWritePossible();
+      } catch (IOException e) {
+        writeListener.onError(e);
+      }
+    }
+  }
+}
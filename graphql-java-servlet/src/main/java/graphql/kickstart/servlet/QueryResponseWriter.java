@@ -1,10 +1,24 @@
 package graphql.kickstart.servlet;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public interface QueryResponseWriter {
 
   void write(HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+  /**
+   * Writes the response without waiting for content that is produced later, like the events of a
+   * subscription.
+   *
+   * @return future completed once the response has been written completely, after which async
+   *     processing of the request can be completed
+   */
+  default CompletableFuture<Void> writeAsync(
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    write(request, response);
+    return CompletableFuture.completedFuture(null);
+  }
 }
@@ -13,7 +13,15 @@ public class QueryResponseWriterFactoryImpl implements QueryResponseWriterFactor
       GraphQLConfiguration configuration) {
     Objects.requireNonNull(queryResult, "GraphQL query result cannot be null");
 
+    if (queryResult.isIncremental()) {
+      return new IncrementalBatchedQueryResponseWriter(
+          queryResult.getFutureResults(), configuration.getObjectMapper());
+    }
     if (queryResult.isBatched()) {
+      if (configuration.isStreamResponses()) {
+        return new StreamingBatchedQueryResponseWriter(
+            queryResult.getResults(), configuration.getObjectMapper());
+      }
       return new BatchedQueryResponseWriter(
           queryResult.getResults(), configuration.getObjectMapper());
     }
@@ -21,11 +29,19 @@ public class QueryResponseWriterFactoryImpl implements QueryResponseWriterFactor
       return new SingleAsynchronousQueryResponseWriter(
           queryResult.getResult(),
           configuration.getObjectMapper(),
-          configuration.getSubscriptionTimeout());
+          configuration.getSubscriptionTimeout(),
+          configuration.getSubscriptionDemand(),
+          configuration.getSubscriptionBufferSize(),
+          configuration.getSubscriptionSlowConsumerPolicy(),
+          configuration.getAsyncExecutor());
     }
     if (queryResult.isError()) {
       return new ErrorQueryResponseWriter(queryResult.getStatusCode(), queryResult.getMessage());
     }
+    if (configuration.isStreamResponses()) {
+      return new StreamingSingleQueryResponseWriter(
+          queryResult.getResult(), configuration.getObjectMapper());
+    }
     return new SingleQueryResponseWriter(queryResult.getResult(), configuration.getObjectMapper());
   }
 }
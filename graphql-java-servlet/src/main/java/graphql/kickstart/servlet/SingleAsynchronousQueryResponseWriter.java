@@ -5,24 +5,70 @@ import graphql.kickstart.execution.GraphQLObjectMapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 
-@RequiredArgsConstructor
 class SingleAsynchronousQueryResponseWriter implements QueryResponseWriter {
 
   @Getter private final ExecutionResult result;
   private final GraphQLObjectMapper graphQLObjectMapper;
   private final long subscriptionTimeout;
+  private final int demand;
+  private final int bufferSize;
+  private final SlowConsumerPolicy slowConsumerPolicy;
+  private final Executor executor;
+
+  SingleAsynchronousQueryResponseWriter(
+      ExecutionResult result, GraphQLObjectMapper graphQLObjectMapper, long subscriptionTimeout) {
+    this(
+        result,
+        graphQLObjectMapper,
+        subscriptionTimeout,
+        1,
+        Integer.MAX_VALUE,
+        SlowConsumerPolicy.BACKPRESSURE,
+        null);
+  }
+
+  SingleAsynchronousQueryResponseWriter(
+      ExecutionResult result,
+      GraphQLObjectMapper graphQLObjectMapper,
+      long subscriptionTimeout,
+      int demand,
+      int bufferSize,
+      SlowConsumerPolicy slowConsumerPolicy,
+      Executor executor) {
+    this.result = result;
+    this.graphQLObjectMapper = graphQLObjectMapper;
+    this.subscriptionTimeout = subscriptionTimeout;
+    this.demand = demand;
+    this.bufferSize = bufferSize;
+    this.slowConsumerPolicy = slowConsumerPolicy;
+    this.executor = executor;
+  }
 
   @Override
   public void write(HttpServletRequest request, HttpServletResponse response) {
+    // the caller completes the async context on return, so wait until the subscription terminated
+    writeAsync(request, response).join();
+  }
+
+  /**
+   * Subscribes to the result and returns right away, the events are written by the threads
+   * publishing them. If async processing was started by the caller, the returned future completes
+   * when the subscription terminates and the caller completes the async context. Otherwise this
+   * writer starts async processing itself and completes it when the subscription terminates.
+   */
+  @Override
+  public CompletableFuture<Void> writeAsync(
+      HttpServletRequest request, HttpServletResponse response) {
     Objects.requireNonNull(request, "Http servlet request cannot be null");
     response.setContentType(HttpRequestHandler.APPLICATION_EVENT_STREAM_UTF8);
     response.setStatus(HttpRequestHandler.STATUS_OK);
@@ -34,7 +80,15 @@ class SingleAsynchronousQueryResponseWriter implements QueryResponseWriter {
     AtomicReference<Subscription> subscriptionRef = new AtomicReference<>();
     asyncContext.addListener(new SubscriptionAsyncListener(subscriptionRef));
     ExecutionResultSubscriber subscriber =
-        new ExecutionResultSubscriber(subscriptionRef, asyncContext, graphQLObjectMapper);
+        new ExecutionResultSubscriber(
+            subscriptionRef,
+            asyncContext,
+            graphQLObjectMapper,
+            !isInAsyncThread,
+            demand,
+            bufferSize,
+            slowConsumerPolicy,
+            executor);
     List<Publisher<ExecutionResult>> publishers = new ArrayList<>();
     if (result.getData() instanceof Publisher) {
       publishers.add(result.getData());
@@ -43,14 +97,6 @@ class SingleAsynchronousQueryResponseWriter implements QueryResponseWriter {
     }
     publishers.forEach(it -> it.subscribe(subscriber));
 
-    if (isInAsyncThread) {
-      // We need to delay the completion of async context until after the subscription has
-      // terminated, otherwise the AsyncContext is prematurely closed.
-      try {
-        subscriber.await();
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      }
-    }
+    return isInAsyncThread ? subscriber.getCompletion() : CompletableFuture.completedFuture(null);
   }
 }
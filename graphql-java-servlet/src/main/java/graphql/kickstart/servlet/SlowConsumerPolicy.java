@@ -0,0 +1,20 @@
+package graphql.kickstart.servlet;
+
+/**
+ * What to do with subscription events a client does not read fast enough. See {@link
+ * graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue} for how websockets apply it.
+ */
+public enum SlowConsumerPolicy {
+
+  /**
+   * Only request new events from the publisher after the previous ones have been written, so a
+   * slow client slows down the publisher.
+   */
+  BACKPRESSURE,
+  /** Keep requesting events and discard the oldest pending one when the buffer is full. */
+  DROP_OLDEST,
+  /** Keep requesting events and replace all pending ones by the latest when the buffer is full. */
+  CONFLATE_LATEST,
+  /** Keep requesting events and close the stream when the buffer is full. */
+  DISCONNECT
+}
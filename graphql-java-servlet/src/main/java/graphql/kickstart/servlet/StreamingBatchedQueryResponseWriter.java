@@ -0,0 +1,40 @@
+package graphql.kickstart.servlet;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import graphql.ExecutionResult;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the batch as a JSON array through a single {@link JsonGenerator} on top of the response
+ * output stream, flushing after every result. Memory stays bounded by the largest single result
+ * and there is no size limit, but no Content-Length header is sent.
+ */
+@RequiredArgsConstructor
+class StreamingBatchedQueryResponseWriter implements QueryResponseWriter {
+
+  private final List<ExecutionResult> results;
+  private final GraphQLObjectMapper graphQLObjectMapper;
+
+  @Override
+  public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setContentType(HttpRequestHandler.APPLICATION_JSON_UTF8);
+    response.setStatus(HttpRequestHandler.STATUS_OK);
+
+    try (JsonGenerator generator =
+        graphQLObjectMapper.createJsonGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+      for (ExecutionResult result : results) {
+        graphQLObjectMapper.serializeResultAsJson(generator, result);
+        generator.flush();
+      }
+      generator.writeEndArray();
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package graphql.kickstart.servlet;
+
+import graphql.ExecutionResult;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serializes the result straight into the response output stream instead of an intermediate
+ * {@code byte[]}. Because the length is not known upfront no Content-Length is set, so the
+ * container falls back to chunked transfer encoding for responses exceeding its buffer.
+ */
+@RequiredArgsConstructor
+class StreamingSingleQueryResponseWriter implements QueryResponseWriter {
+
+  private final ExecutionResult result;
+  private final GraphQLObjectMapper graphQLObjectMapper;
+
+  @Override
+  public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType(HttpRequestHandler.APPLICATION_JSON_UTF8);
+    response.setStatus(HttpRequestHandler.STATUS_OK);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    ServletOutputStream outputStream = response.getOutputStream();
+    graphQLObjectMapper.serializeResultAsJson(outputStream, result);
+    outputStream.flush();
+  }
+}
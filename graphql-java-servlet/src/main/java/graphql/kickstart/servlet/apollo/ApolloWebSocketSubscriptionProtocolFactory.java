@@ -7,6 +7,7 @@ import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
 import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionConnectionListener;
 import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionProtocolFactory;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
 import graphql.kickstart.servlet.subscriptions.WebSocketSubscriptionProtocolFactory;
 import java.time.Duration;
 import java.util.Collection;
@@ -57,4 +58,10 @@ public class ApolloWebSocketSubscriptionProtocolFactory extends ApolloSubscripti
     return new ApolloWebSocketSubscriptionSession(
         new GraphQLSubscriptionMapper(getObjectMapper()), session);
   }
+
+  @Override
+  public SubscriptionSession createSession(Session session, WebSocketOutboundQueue outboundQueue) {
+    return new ApolloWebSocketSubscriptionSession(
+        new GraphQLSubscriptionMapper(getObjectMapper()), session, outboundQueue);
+  }
 }
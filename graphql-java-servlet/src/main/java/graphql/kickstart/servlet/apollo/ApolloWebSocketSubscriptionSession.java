@@ -2,17 +2,46 @@ package graphql.kickstart.servlet.apollo;
 
 import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
 import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionSession;
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type;
+import graphql.kickstart.servlet.subscriptions.QueuedSubscriptionSession;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
 import graphql.kickstart.servlet.subscriptions.WebSocketSubscriptionSession;
 import java.util.Map;
 import jakarta.websocket.Session;
 
-public class ApolloWebSocketSubscriptionSession extends ApolloSubscriptionSession {
+public class ApolloWebSocketSubscriptionSession extends ApolloSubscriptionSession
+    implements QueuedSubscriptionSession {
 
   private final WebSocketSubscriptionSession webSocketSubscriptionSession;
 
   public ApolloWebSocketSubscriptionSession(GraphQLSubscriptionMapper mapper, Session session) {
+    this(mapper, session, new WebSocketOutboundQueue(session));
+  }
+
+  public ApolloWebSocketSubscriptionSession(
+      GraphQLSubscriptionMapper mapper, Session session, WebSocketOutboundQueue outboundQueue) {
     super(mapper);
-    webSocketSubscriptionSession = new WebSocketSubscriptionSession(mapper, session);
+    webSocketSubscriptionSession = new WebSocketSubscriptionSession(mapper, session, outboundQueue);
+  }
+
+  @Override
+  public void send(String message) {
+    markSent();
+    webSocketSubscriptionSession.send(message);
+  }
+
+  @Override
+  public void sendDataMessage(String id, Object payload) {
+    markSent();
+    webSocketSubscriptionSession
+        .getOutboundQueue()
+        .send(id, getEncoder().encode(Type.GQL_DATA, id, payload));
+  }
+
+  @Override
+  public void close(String reason) {
+    getSubscriptions().close();
+    getOutboundQueue().close();
   }
 
   @Override
@@ -34,4 +63,9 @@ public class ApolloWebSocketSubscriptionSession extends ApolloSubscriptionSessio
   public Session unwrap() {
     return webSocketSubscriptionSession.unwrap();
   }
+
+  @Override
+  public WebSocketOutboundQueue getOutboundQueue() {
+    return webSocketSubscriptionSession.getOutboundQueue();
+  }
 }
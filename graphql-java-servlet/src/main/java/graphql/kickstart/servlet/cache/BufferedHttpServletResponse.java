@@ -2,7 +2,6 @@ package graphql.kickstart.servlet.cache;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import jakarta.servlet.ServletOutputStream;
@@ -101,10 +100,10 @@ public class BufferedHttpServletResponse extends HttpServletResponseWrapper {
 
   private static final class BufferedOutputStream extends ServletOutputStream {
 
-    private final OutputStream delegate;
+    private final ServletOutputStream delegate;
     private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
 
-    public BufferedOutputStream(OutputStream delegate) {
+    public BufferedOutputStream(ServletOutputStream delegate) {
       this.delegate = delegate;
     }
 
@@ -127,12 +126,12 @@ public class BufferedHttpServletResponse extends HttpServletResponseWrapper {
 
     @Override
     public boolean isReady() {
-      return true;
+      return delegate.isReady();
     }
 
     @Override
     public void setWriteListener(WriteListener writeListener) {
-      // write listener not supported
+      delegate.setWriteListener(writeListener);
     }
 
     public byte[] toByteArray() {
@@ -43,6 +43,9 @@ public class CachingHttpRequestInvoker implements HttpRequestInvoker {
       if (!cacheReader.responseFromCache(
           invocationInput, request, response, configuration.getResponseCacheManager())) {
         requestInvoker.execute(invocationInput, request, response, listenerHandler);
+      } else if (request.isAsyncStarted()) {
+        // the body was read without blocking
+        request.getAsyncContext().complete();
       }
     } catch (IOException e) {
       response.setStatus(STATUS_BAD_REQUEST);
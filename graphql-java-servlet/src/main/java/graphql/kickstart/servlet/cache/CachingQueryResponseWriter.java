@@ -3,6 +3,8 @@ package graphql.kickstart.servlet.cache;
 import graphql.kickstart.execution.input.GraphQLInvocationInput;
 import graphql.kickstart.servlet.QueryResponseWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -34,26 +36,53 @@ public class CachingQueryResponseWriter implements QueryResponseWriter {
 
       delegate.write(request, cachingResponseWrapper);
 
-      try {
-        if (error) {
-          int errorStatusCode = cachingResponseWrapper.getStatus();
-          String errorMessage = cachingResponseWrapper.getErrorMessage();
+      cache(request, cachingResponseWrapper);
+    } else {
+      delegate.write(request, response);
+    }
+  }
 
-          responseCache.put(
-              request, invocationInput, CachedResponse.ofError(errorStatusCode, errorMessage));
-        } else {
-          byte[] contentBytes = cachingResponseWrapper.getContentAsByteArray();
+  @Override
+  public CompletableFuture<Void> writeAsync(
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (responseCache.isCacheable(request, invocationInput)) {
+      BufferedHttpServletResponse cachingResponseWrapper =
+          new BufferedHttpServletResponse(response);
 
-          responseCache.put(request, invocationInput, CachedResponse.ofContent(contentBytes));
-        }
-      } catch (Exception t) {
-        log.warn("Ignore read from cache, unexpected error happened", t);
-      }
+      return delegate
+          .writeAsync(request, cachingResponseWrapper)
+          .thenRun(
+              () -> {
+                try {
+                  cache(request, cachingResponseWrapper);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    }
+    return delegate.writeAsync(request, response);
+  }
 
-      cachingResponseWrapper.flushBuffer();
-      cachingResponseWrapper.close();
-    } else {
-      delegate.write(request, response);
+  private void cache(HttpServletRequest request, BufferedHttpServletResponse cachingResponseWrapper)
+      throws IOException {
+    // content still held by the writer is not part of the copied bytes yet
+    cachingResponseWrapper.flushBuffer();
+    try {
+      if (error) {
+        int errorStatusCode = cachingResponseWrapper.getStatus();
+        String errorMessage = cachingResponseWrapper.getErrorMessage();
+
+        responseCache.put(
+            request, invocationInput, CachedResponse.ofError(errorStatusCode, errorMessage));
+      } else {
+        byte[] contentBytes = cachingResponseWrapper.getContentAsByteArray();
+
+        responseCache.put(request, invocationInput, CachedResponse.ofContent(contentBytes));
+      }
+    } catch (Exception t) {
+      log.warn("Ignore read from cache, unexpected error happened", t);
     }
+
+    cachingResponseWrapper.close();
   }
 }
@@ -4,10 +4,13 @@ import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput;
 
 /**
  * Wraps the result of pre processing a batch. Allows customization of the response code and message
- * if the batch isn't to be executed.
+ * if the batch isn't to be executed, and of how many of its executions run at the same time.
  */
 public class BatchInputPreProcessResult {
 
+  /** Uses the per batch limit of the {@link graphql.kickstart.execution.GraphQLInvoker}. */
+  public static final int DEFAULT_MAX_IN_FLIGHT = 0;
+
   private final GraphQLBatchedInvocationInput batchedInvocationInput;
 
   private final int statusCode;
@@ -16,11 +19,26 @@ public class BatchInputPreProcessResult {
 
   private final String messsage;
 
+  private final int maxInFlight;
+
   public BatchInputPreProcessResult(GraphQLBatchedInvocationInput graphQLBatchedInvocationInput) {
+    this(graphQLBatchedInvocationInput, DEFAULT_MAX_IN_FLIGHT);
+  }
+
+  /**
+   * @param graphQLBatchedInvocationInput the batch to execute
+   * @param maxInFlight maximum number of executions of this batch running at the same time
+   */
+  public BatchInputPreProcessResult(
+      GraphQLBatchedInvocationInput graphQLBatchedInvocationInput, int maxInFlight) {
+    if (maxInFlight < 0) {
+      throw new IllegalArgumentException("Batch execution limit can not be negative");
+    }
     this.batchedInvocationInput = graphQLBatchedInvocationInput;
     this.executable = true;
     this.statusCode = 200;
     this.messsage = null;
+    this.maxInFlight = maxInFlight;
   }
 
   public BatchInputPreProcessResult(int statusCode, String messsage) {
@@ -28,6 +46,7 @@ public class BatchInputPreProcessResult {
     this.executable = false;
     this.statusCode = statusCode;
     this.messsage = messsage;
+    this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
   }
 
   /** @return If the servlet should try executing this batched input */
@@ -49,4 +68,12 @@ public class BatchInputPreProcessResult {
   public int getStatusCode() {
     return statusCode;
   }
+
+  /**
+   * @return maximum number of executions of the batch running at the same time, or {@link
+   *     #DEFAULT_MAX_IN_FLIGHT}
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
 }
@@ -5,6 +5,8 @@ import graphql.kickstart.execution.config.GraphQLSchemaProvider;
 import graphql.kickstart.execution.context.ContextSetting;
 import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput;
 import graphql.kickstart.execution.input.GraphQLSingleInvocationInput;
+import graphql.kickstart.execution.persisted.PersistedQueryResolver;
+import graphql.kickstart.execution.persisted.PersistedQueryStore;
 import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationInputFactory;
 import graphql.kickstart.execution.subscriptions.SubscriptionSession;
 import graphql.kickstart.servlet.config.DefaultGraphQLSchemaServletProvider;
@@ -27,14 +29,25 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
   private final Supplier<GraphQLSchemaServletProvider> schemaProviderSupplier;
   private final Supplier<GraphQLServletContextBuilder> contextBuilderSupplier;
   private final Supplier<GraphQLServletRootObjectBuilder> rootObjectBuilderSupplier;
+  private final PersistedQueryResolver persistedQueryResolver;
 
   protected GraphQLInvocationInputFactory(
       Supplier<GraphQLSchemaServletProvider> schemaProviderSupplier,
       Supplier<GraphQLServletContextBuilder> contextBuilderSupplier,
       Supplier<GraphQLServletRootObjectBuilder> rootObjectBuilderSupplier) {
+    this(schemaProviderSupplier, contextBuilderSupplier, rootObjectBuilderSupplier, null);
+  }
+
+  protected GraphQLInvocationInputFactory(
+      Supplier<GraphQLSchemaServletProvider> schemaProviderSupplier,
+      Supplier<GraphQLServletContextBuilder> contextBuilderSupplier,
+      Supplier<GraphQLServletRootObjectBuilder> rootObjectBuilderSupplier,
+      PersistedQueryStore persistedQueryStore) {
     this.schemaProviderSupplier = schemaProviderSupplier;
     this.contextBuilderSupplier = contextBuilderSupplier;
     this.rootObjectBuilderSupplier = rootObjectBuilderSupplier;
+    this.persistedQueryResolver =
+        persistedQueryStore != null ? new PersistedQueryResolver(persistedQueryStore) : null;
   }
 
   public static Builder newBuilder(GraphQLSchema schema) {
@@ -81,7 +94,7 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
 
   public GraphQLSingleInvocationInput create(GraphQLRequest graphQLRequest) {
     return new GraphQLSingleInvocationInput(
-        graphQLRequest,
+        resolve(graphQLRequest),
         schemaProviderSupplier.get().getSchema(),
         contextBuilderSupplier.get().build(),
         rootObjectBuilderSupplier.get().build());
@@ -93,7 +106,7 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
       HttpServletResponse response,
       boolean readOnly) {
     return new GraphQLSingleInvocationInput(
-        graphQLRequest,
+        resolve(graphQLRequest),
         readOnly
             ? schemaProviderSupplier.get().getReadOnlySchema(request)
             : schemaProviderSupplier.get().getSchema(request),
@@ -108,7 +121,7 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
       HttpServletResponse response,
       boolean readOnly) {
     return contextSetting.getBatch(
-        graphQLRequests,
+        resolve(graphQLRequests),
         readOnly
             ? schemaProviderSupplier.get().getReadOnlySchema(request)
             : schemaProviderSupplier.get().getSchema(request),
@@ -122,7 +135,7 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
     HandshakeRequest request =
         (HandshakeRequest) session.getUserProperties().get(HandshakeRequest.class.getName());
     return new GraphQLSingleInvocationInput(
-        graphQLRequest,
+        resolve(graphQLRequest),
         schemaProviderSupplier.get().getSchema(request),
         contextBuilderSupplier.get().build((Session) session.unwrap(), request),
         rootObjectBuilderSupplier.get().build(request));
@@ -133,12 +146,25 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
     HandshakeRequest request =
         (HandshakeRequest) session.getUserProperties().get(HandshakeRequest.class.getName());
     return contextSetting.getBatch(
-        graphQLRequest,
+        resolve(graphQLRequest),
         schemaProviderSupplier.get().getSchema(request),
         () -> contextBuilderSupplier.get().build(session, request),
         rootObjectBuilderSupplier.get().build(request));
   }
 
+  private GraphQLRequest resolve(GraphQLRequest graphQLRequest) {
+    return persistedQueryResolver != null
+        ? persistedQueryResolver.resolve(graphQLRequest)
+        : graphQLRequest;
+  }
+
+  private List<GraphQLRequest> resolve(List<GraphQLRequest> graphQLRequests) {
+    if (persistedQueryResolver == null) {
+      return graphQLRequests;
+    }
+    return persistedQueryResolver.resolveEach(graphQLRequests);
+  }
+
   public static class Builder {
 
     private final Supplier<GraphQLSchemaServletProvider> schemaProviderSupplier;
@@ -146,6 +172,7 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
         DefaultGraphQLServletContextBuilder::new;
     private Supplier<GraphQLServletRootObjectBuilder> rootObjectBuilderSupplier =
         DefaultGraphQLRootObjectBuilder::new;
+    private PersistedQueryStore persistedQueryStore;
 
     public Builder(GraphQLSchemaServletProvider schemaProvider) {
       this(() -> schemaProvider);
@@ -175,9 +202,21 @@ public class GraphQLInvocationInputFactory implements GraphQLSubscriptionInvocat
       return this;
     }
 
+    /**
+     * Enables automatic persisted queries, resolving {@code extensions.persistedQuery} hashes
+     * against the given store.
+     */
+    public Builder withPersistedQueryStore(PersistedQueryStore persistedQueryStore) {
+      this.persistedQueryStore = persistedQueryStore;
+      return this;
+    }
+
     public GraphQLInvocationInputFactory build() {
       return new GraphQLInvocationInputFactory(
-          schemaProviderSupplier, contextBuilderSupplier, rootObjectBuilderSupplier);
+          schemaProviderSupplier,
+          contextBuilderSupplier,
+          rootObjectBuilderSupplier,
+          persistedQueryStore);
     }
   }
 }
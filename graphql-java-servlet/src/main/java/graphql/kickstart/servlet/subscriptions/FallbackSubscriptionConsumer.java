@@ -12,6 +12,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
 
 /** @author Andrew Potter */
 @RequiredArgsConstructor
@@ -42,10 +43,14 @@ public class FallbackSubscriptionConsumer implements Consumer<String> {
   private void handleSubscriptionStart(
       SubscriptionSession session, String id, ExecutionResult executionResult) {
     ExecutionResult sanitizedExecutionResult = mapper.sanitizeErrors(executionResult);
-    if (mapper.hasNoErrors(sanitizedExecutionResult)) {
+    if (mapper.hasNoErrors(sanitizedExecutionResult)
+        && sanitizedExecutionResult.getData() instanceof Publisher) {
       session.subscribe(id, sanitizedExecutionResult.getData());
     } else {
-      Object payload = mapper.convertSanitizedExecutionResult(sanitizedExecutionResult);
+      // queries and mutations send their single result, including data
+      Object payload =
+          mapper.convertSanitizedExecutionResult(
+              sanitizedExecutionResult, executionResult.isDataPresent());
       session.sendDataMessage(id, payload);
     }
   }
@@ -36,4 +36,9 @@ public class FallbackSubscriptionProtocolFactory extends SubscriptionProtocolFac
   public SubscriptionSession createSession(Session session) {
     return new WebSocketSubscriptionSession(mapper, session);
   }
+
+  @Override
+  public SubscriptionSession createSession(Session session, WebSocketOutboundQueue outboundQueue) {
+    return new WebSocketSubscriptionSession(mapper, session, outboundQueue);
+  }
 }
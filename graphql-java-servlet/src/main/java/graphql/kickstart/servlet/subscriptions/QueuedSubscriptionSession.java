@@ -0,0 +1,10 @@
+package graphql.kickstart.servlet.subscriptions;
+
+/**
+ * A websocket subscription session that sends its messages, and closes, through a {@link
+ * WebSocketOutboundQueue} instead of its publisher.
+ */
+public interface QueuedSubscriptionSession {
+
+  WebSocketOutboundQueue getOutboundQueue();
+}
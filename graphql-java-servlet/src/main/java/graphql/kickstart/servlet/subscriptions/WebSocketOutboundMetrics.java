@@ -0,0 +1,51 @@
+package graphql.kickstart.servlet.subscriptions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters shared by the {@link WebSocketOutboundQueue outbound queues} of all sessions. */
+public class WebSocketOutboundMetrics {
+
+  private final LongAdder queueDepth = new LongAdder();
+  private final LongAdder sentCount = new LongAdder();
+  private final LongAdder droppedCount = new LongAdder();
+  private final LongAdder disconnectCount = new LongAdder();
+
+  void queued() {
+    queueDepth.increment();
+  }
+
+  void dequeued(int count) {
+    queueDepth.add(-count);
+  }
+
+  void sent() {
+    sentCount.increment();
+  }
+
+  void dropped() {
+    droppedCount.increment();
+  }
+
+  void disconnected() {
+    disconnectCount.increment();
+  }
+
+  /** @return number of messages waiting to be sent over all sessions */
+  public long getQueueDepth() {
+    return queueDepth.sum();
+  }
+
+  public long getSentCount() {
+    return sentCount.sum();
+  }
+
+  /** @return number of messages dropped or replaced by a later message of the same subscription */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /** @return number of sessions closed because their client did not read fast enough */
+  public long getDisconnectCount() {
+    return disconnectCount.sum();
+  }
+}
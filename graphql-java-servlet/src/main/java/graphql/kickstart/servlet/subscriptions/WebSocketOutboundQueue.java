@@ -0,0 +1,267 @@
+package graphql.kickstart.servlet.subscriptions;
+
+import graphql.kickstart.servlet.SlowConsumerPolicy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue of the messages waiting to be sent to a websocket session. Messages are sent with
+ * the asynchronous remote endpoint, one at a time, so no thread blocks on a slow client. Once the
+ * queue is full the {@link SlowConsumerPolicy} decides what happens to new subscription data:
+ *
+ * <ul>
+ *   <li>{@link SlowConsumerPolicy#BACKPRESSURE} blocks the thread publishing the data until there
+ *       is room again or the queue is closed
+ *   <li>{@link SlowConsumerPolicy#DROP_OLDEST} drops the oldest pending data message, which is the
+ *       default
+ *   <li>{@link SlowConsumerPolicy#CONFLATE_LATEST} replaces the pending data message of the same
+ *       subscription, or drops the oldest one if there is none
+ *   <li>{@link SlowConsumerPolicy#DISCONNECT} closes the session
+ * </ul>
+ *
+ * Control messages (acknowledgements, errors, completions) are never dropped.
+ */
+@Slf4j
+public class WebSocketOutboundQueue {
+
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private static final CloseReason SLOW_CONSUMER_CLOSE_REASON =
+      new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Client does not read fast enough");
+  private static final CloseReason SEND_FAILED_CLOSE_REASON =
+      new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Cannot send message");
+  private static final long BACKPRESSURE_CHECK_MILLIS = 1000;
+
+  private final Session session;
+  private final int capacity;
+  private final SlowConsumerPolicy policy;
+  private final WebSocketOutboundMetrics metrics;
+  private final Deque<OutboundMessage> pending = new ArrayDeque<>();
+  private final Object lock = new Object();
+  private boolean sending;
+  private boolean closing;
+  private CloseReason closingReason;
+  private boolean closed;
+
+  public WebSocketOutboundQueue(Session session) {
+    this(session, DEFAULT_CAPACITY, SlowConsumerPolicy.DROP_OLDEST, new WebSocketOutboundMetrics());
+  }
+
+  public WebSocketOutboundQueue(
+      Session session,
+      int capacity,
+      SlowConsumerPolicy policy,
+      WebSocketOutboundMetrics metrics) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Outbound queue capacity must be positive");
+    }
+    this.session = Objects.requireNonNull(session, "session is required");
+    this.capacity = capacity;
+    this.policy = Objects.requireNonNull(policy, "policy is required");
+    this.metrics = Objects.requireNonNull(metrics, "metrics is required");
+  }
+
+  /** Queues a control message, which is sent even if the queue is full. */
+  public void send(String message) {
+    enqueue(null, message);
+  }
+
+  /** Queues a data message of the given subscription, applying the policy if the queue is full. */
+  public void send(String subscriptionId, String message) {
+    enqueue(Objects.requireNonNull(subscriptionId, "subscriptionId is required"), message);
+  }
+
+  private void enqueue(String subscriptionId, String message) {
+    Objects.requireNonNull(message, "message is required");
+    boolean start;
+    boolean disconnect = false;
+    synchronized (lock) {
+      if (closed || closing) {
+        log.debug("Discarding message for closed session {}", session.getId());
+        return;
+      }
+      if (subscriptionId != null && pending.size() >= capacity) {
+        switch (policy) {
+          case BACKPRESSURE:
+            if (!awaitCapacity()) {
+              return;
+            }
+            break;
+          case CONFLATE_LATEST:
+            if (conflate(subscriptionId, message)) {
+              return;
+            }
+            dropOldestData();
+            break;
+          case DROP_OLDEST:
+            dropOldestData();
+            break;
+          default:
+            discardPending();
+            closed = true;
+            disconnect = true;
+        }
+      }
+      if (!disconnect) {
+        pending.add(new OutboundMessage(subscriptionId, message));
+        metrics.queued();
+      }
+      start = !sending && !disconnect;
+      sending |= start;
+    }
+
+    if (disconnect) {
+      log.warn("Closing session {}: client does not read fast enough", session.getId());
+      metrics.disconnected();
+      closeSession(SLOW_CONSUMER_CLOSE_REASON);
+    } else if (start) {
+      sendNext();
+    }
+  }
+
+  private boolean awaitCapacity() {
+    while (pending.size() >= capacity) {
+      if (closed || closing || !session.isOpen()) {
+        return false;
+      }
+      try {
+        lock.wait(BACKPRESSURE_CHECK_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return !closed && !closing;
+  }
+
+  private boolean conflate(String subscriptionId, String message) {
+    Iterator<OutboundMessage> iterator = pending.descendingIterator();
+    while (iterator.hasNext()) {
+      OutboundMessage candidate = iterator.next();
+      if (subscriptionId.equals(candidate.subscriptionId)) {
+        candidate.text = message;
+        metrics.dropped();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void dropOldestData() {
+    Iterator<OutboundMessage> iterator = pending.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().subscriptionId != null) {
+        iterator.remove();
+        metrics.dequeued(1);
+        metrics.dropped();
+        return;
+      }
+    }
+  }
+
+  private void discardPending() {
+    metrics.dequeued(pending.size());
+    pending.clear();
+    lock.notifyAll();
+  }
+
+  private void sendNext() {
+    OutboundMessage next;
+    boolean close;
+    synchronized (lock) {
+      next = pending.poll();
+      if (next != null) {
+        metrics.dequeued(1);
+        lock.notifyAll();
+      } else {
+        sending = false;
+      }
+      close = next == null && closing && !closed;
+      closed |= close;
+    }
+
+    if (next != null) {
+      session.getAsyncRemote().sendText(next.text, this::onResult);
+    } else if (close) {
+      closeSession(closingReason);
+    }
+  }
+
+  private void onResult(SendResult result) {
+    if (result.isOK()) {
+      metrics.sent();
+      sendNext();
+      return;
+    }
+
+    log.error("Cannot send message to session {}", session.getId(), result.getException());
+    synchronized (lock) {
+      discardPending();
+      sending = false;
+      closed = true;
+    }
+    // lets the container report the close, which cancels the subscriptions of the session
+    closeSession(SEND_FAILED_CLOSE_REASON);
+  }
+
+  /** Closes the session once all pending messages have been sent. */
+  public void close() {
+    close(null);
+  }
+
+  /** Closes the session with the given reason once all pending messages have been sent. */
+  public void close(CloseReason closeReason) {
+    boolean close;
+    synchronized (lock) {
+      closing = true;
+      closingReason = closeReason;
+      close = !sending && !closed;
+      closed |= close;
+      lock.notifyAll();
+    }
+    if (close) {
+      closeSession(closeReason);
+    }
+  }
+
+  private void closeSession(CloseReason closeReason) {
+    if (!session.isOpen()) {
+      return;
+    }
+    try {
+      log.debug("Closing session {}", session.getId());
+      if (closeReason != null) {
+        session.close(closeReason);
+      } else {
+        session.close();
+      }
+    } catch (IOException e) {
+      log.error("Cannot close session {}", session.getId(), e);
+    }
+  }
+
+  /** @return number of messages waiting to be sent */
+  public int size() {
+    synchronized (lock) {
+      return pending.size();
+    }
+  }
+
+  private static class OutboundMessage {
+
+    private final String subscriptionId;
+    private String text;
+
+    private OutboundMessage(String subscriptionId, String text) {
+      this.subscriptionId = subscriptionId;
+      this.text = text;
+    }
+  }
+}
@@ -9,4 +9,13 @@ public interface WebSocketSubscriptionProtocolFactory {
   Consumer<String> createConsumer(SubscriptionSession session);
 
   SubscriptionSession createSession(Session session);
+
+  /**
+   * Creates a session sending its messages through the given queue. Factories that do not support
+   * outbound queues fall back to {@link #createSession(Session)}.
+   */
+  default SubscriptionSession createSession(
+      Session session, WebSocketOutboundQueue outboundQueue) {
+    return createSession(session);
+  }
 }
@@ -5,13 +5,39 @@ import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
 import java.util.Map;
 import jakarta.websocket.Session;
 
-public class WebSocketSubscriptionSession extends DefaultSubscriptionSession {
+public class WebSocketSubscriptionSession extends DefaultSubscriptionSession
+    implements QueuedSubscriptionSession {
 
   private final Session session;
+  private final WebSocketOutboundQueue outboundQueue;
 
   public WebSocketSubscriptionSession(GraphQLSubscriptionMapper mapper, Session session) {
+    this(mapper, session, new WebSocketOutboundQueue(session));
+  }
+
+  public WebSocketSubscriptionSession(
+      GraphQLSubscriptionMapper mapper, Session session, WebSocketOutboundQueue outboundQueue) {
     super(mapper);
     this.session = session;
+    this.outboundQueue = outboundQueue;
+  }
+
+  @Override
+  public void send(String message) {
+    markSent();
+    outboundQueue.send(message);
+  }
+
+  @Override
+  public void sendDataMessage(String id, Object payload) {
+    markSent();
+    outboundQueue.send(id, getMapper().serialize(payload));
+  }
+
+  @Override
+  public void close(String reason) {
+    getSubscriptions().close();
+    outboundQueue.close();
   }
 
   @Override
@@ -33,4 +59,9 @@ public class WebSocketSubscriptionSession extends DefaultSubscriptionSession {
   public Session unwrap() {
     return session;
   }
+
+  @Override
+  public WebSocketOutboundQueue getOutboundQueue() {
+    return outboundQueue;
+  }
 }
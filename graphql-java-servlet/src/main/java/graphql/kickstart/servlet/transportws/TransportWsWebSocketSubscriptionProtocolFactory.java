@@ -0,0 +1,66 @@
+package graphql.kickstart.servlet.transportws;
+
+import graphql.kickstart.execution.GraphQLInvoker;
+import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationInputFactory;
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.SubscriptionSession;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionConnectionListener;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionProtocolFactory;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
+import graphql.kickstart.servlet.subscriptions.WebSocketSubscriptionProtocolFactory;
+import java.time.Duration;
+import java.util.Collection;
+import jakarta.websocket.Session;
+
+public class TransportWsWebSocketSubscriptionProtocolFactory
+    extends TransportWsSubscriptionProtocolFactory implements WebSocketSubscriptionProtocolFactory {
+
+  public TransportWsWebSocketSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker) {
+    super(objectMapper, invocationInputFactory, graphQLInvoker);
+  }
+
+  public TransportWsWebSocketSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Duration connectionInitialisationTimeout) {
+    super(objectMapper, invocationInputFactory, graphQLInvoker, connectionInitialisationTimeout);
+  }
+
+  public TransportWsWebSocketSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Collection<TransportWsSubscriptionConnectionListener> connectionListeners) {
+    super(objectMapper, invocationInputFactory, graphQLInvoker, connectionListeners);
+  }
+
+  public TransportWsWebSocketSubscriptionProtocolFactory(
+      GraphQLObjectMapper objectMapper,
+      GraphQLSubscriptionInvocationInputFactory invocationInputFactory,
+      GraphQLInvoker graphQLInvoker,
+      Collection<TransportWsSubscriptionConnectionListener> connectionListeners,
+      Duration connectionInitialisationTimeout) {
+    super(
+        objectMapper,
+        invocationInputFactory,
+        graphQLInvoker,
+        connectionListeners,
+        connectionInitialisationTimeout);
+  }
+
+  @Override
+  public SubscriptionSession createSession(Session session) {
+    return createSession(session, new WebSocketOutboundQueue(session));
+  }
+
+  @Override
+  public SubscriptionSession createSession(Session session, WebSocketOutboundQueue outboundQueue) {
+    return new TransportWsWebSocketSubscriptionSession(
+        new GraphQLSubscriptionMapper(getObjectMapper()), getCodec(), session, outboundQueue);
+  }
+}
@@ -0,0 +1,80 @@
+package graphql.kickstart.servlet.transportws;
+
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsFrameCodec;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsMessage.Type;
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionSession;
+import graphql.kickstart.servlet.subscriptions.QueuedSubscriptionSession;
+import graphql.kickstart.servlet.subscriptions.WebSocketOutboundQueue;
+import graphql.kickstart.servlet.subscriptions.WebSocketSubscriptionSession;
+import java.util.Map;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+
+public class TransportWsWebSocketSubscriptionSession extends TransportWsSubscriptionSession
+    implements QueuedSubscriptionSession {
+
+  private final WebSocketSubscriptionSession webSocketSubscriptionSession;
+
+  public TransportWsWebSocketSubscriptionSession(
+      GraphQLSubscriptionMapper mapper,
+      TransportWsFrameCodec codec,
+      Session session,
+      WebSocketOutboundQueue outboundQueue) {
+    super(mapper, codec);
+    webSocketSubscriptionSession = new WebSocketSubscriptionSession(mapper, session, outboundQueue);
+  }
+
+  @Override
+  public void send(String message) {
+    markSent();
+    webSocketSubscriptionSession.send(message);
+  }
+
+  @Override
+  public void sendDataMessage(String id, Object payload) {
+    markSent();
+    webSocketSubscriptionSession
+        .getOutboundQueue()
+        .send(id, getCodec().encode(Type.NEXT, id, payload));
+  }
+
+  @Override
+  public void close(String reason) {
+    getSubscriptions().close();
+    getOutboundQueue().close();
+  }
+
+  @Override
+  public void close(int code, String reason) {
+    getSubscriptions().close();
+    webSocketSubscriptionSession
+        .getOutboundQueue()
+        .close(new CloseReason(CloseReason.CloseCodes.getCloseCode(code), reason));
+  }
+
+  @Override
+  public boolean isOpen() {
+    return webSocketSubscriptionSession.isOpen();
+  }
+
+  @Override
+  public Map<String, Object> getUserProperties() {
+    return webSocketSubscriptionSession.getUserProperties();
+  }
+
+  @Override
+  public String getId() {
+    return webSocketSubscriptionSession.getId();
+  }
+
+  @Override
+  public Session unwrap() {
+    return webSocketSubscriptionSession.unwrap();
+  }
+
+  @Override
+  public WebSocketOutboundQueue getOutboundQueue() {
+    return webSocketSubscriptionSession.getOutboundQueue();
+  }
+}
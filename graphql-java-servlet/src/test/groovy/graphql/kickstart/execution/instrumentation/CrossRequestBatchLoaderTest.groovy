@@ -0,0 +1,159 @@
+package graphql.kickstart.execution.instrumentation
+
+import org.dataloader.BatchLoader
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+class CrossRequestBatchLoaderTest extends Specification {
+
+  List<List<String>> loadedKeys = []
+  List<Runnable> tasks = []
+  def executor = { tasks << it } as Executor
+
+  def loader(BatchLoader<String, String> delegate) {
+    new CrossRequestBatchLoader<String, String>(delegate, Duration.ofMinutes(1), 100, executor)
+  }
+
+  def upperCase = { List<String> keys ->
+    loadedKeys << keys
+    CompletableFuture.completedFuture(keys.collect { it.toUpperCase() })
+  } as BatchLoader<String, String>
+
+  def runTasks() {
+    while (tasks) {
+      tasks.remove(0).run()
+    }
+  }
+
+  def "loads the distinct keys of all pending batches with one call"() {
+    given:
+    def loader = loader(upperCase)
+
+    when:
+    def first = loader.load(["a", "b", "a"]).toCompletableFuture()
+    def second = loader.load(["b", "c"]).toCompletableFuture()
+    loader.flush()
+
+    then:
+    loadedKeys.isEmpty()
+
+    when:
+    runTasks()
+
+    then:
+    loadedKeys == [["a", "b", "c"]]
+    first.get() == ["A", "B", "A"]
+    second.get() == ["B", "C"]
+
+    cleanup:
+    loader.shutdown()
+  }
+
+  def "loads right away on the executor once enough keys are pending"() {
+    given:
+    def loader = new CrossRequestBatchLoader<String, String>(
+        upperCase, Duration.ofMinutes(1), 3, executor)
+
+    when:
+    def first = loader.load(["a", "b"]).toCompletableFuture()
+    def second = loader.load(["c"]).toCompletableFuture()
+
+    then:
+    tasks.size() == 1
+
+    when:
+    runTasks()
+
+    then:
+    first.get() == ["A", "B"]
+    second.get() == ["C"]
+
+    cleanup:
+    loader.shutdown()
+  }
+
+  def "calls the delegate on the executor instead of the window timer"() {
+    given:
+    String thread = null
+    def delegate = { List<String> keys ->
+      thread = Thread.currentThread().name
+      CompletableFuture.completedFuture(keys)
+    } as BatchLoader<String, String>
+    def loader = new CrossRequestBatchLoader<String, String>(delegate, Duration.ofMillis(1), 100)
+
+    when:
+    loader.load(["a"]).toCompletableFuture().get(5, TimeUnit.SECONDS)
+
+    then:
+    thread != null
+    thread != "graphql-batch-window"
+
+    cleanup:
+    loader.shutdown()
+  }
+
+  def "fails every pending batch when the delegate #failure"() {
+    given:
+    def loader = loader(delegate)
+
+    when:
+    def first = loader.load(["a"]).toCompletableFuture()
+    def second = loader.load(["b"]).toCompletableFuture()
+    loader.flush()
+    runTasks()
+
+    then:
+    [first, second].every { it.isCompletedExceptionally() }
+
+    when:
+    second.join()
+
+    then:
+    def e = thrown(CompletionException)
+    e.cause instanceof IllegalArgumentException
+    e.cause.message == "backend down"
+
+    cleanup:
+    loader.shutdown()
+
+    where:
+    failure           | delegate
+    "throws"          | { keys -> throw new IllegalArgumentException("backend down") } as BatchLoader<String, String>
+    "fails its stage" | { keys -> CompletableFuture.failedFuture(new IllegalArgumentException("backend down")) } as BatchLoader<String, String>
+  }
+
+  def "fails every pending batch when the delegate returns #count values for 2 keys"() {
+    given:
+    def loader = loader({ keys ->
+      CompletableFuture.completedFuture(values)
+    } as BatchLoader<String, String>)
+
+    when:
+    def first = loader.load(["a"]).toCompletableFuture()
+    def second = loader.load(["b"]).toCompletableFuture()
+    loader.flush()
+    runTasks()
+    first.join()
+
+    then:
+    def e = thrown(CompletionException)
+    e.cause instanceof IllegalStateException
+    e.cause.message == "Batch loader returned $count values for 2 keys"
+    second.isCompletedExceptionally()
+
+    cleanup:
+    loader.shutdown()
+
+    where:
+    count | values
+    1     | ["A"]
+    3     | ["A", "B", "C"]
+    null  | null
+  }
+}
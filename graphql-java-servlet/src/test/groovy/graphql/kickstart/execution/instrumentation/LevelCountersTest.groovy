@@ -0,0 +1,132 @@
+package graphql.kickstart.execution.instrumentation
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class LevelCountersTest extends Specification {
+
+  def counters = new LevelCounters()
+  def other = new LevelCounters()
+
+  def "a level increased by zero differs from a level never increased"() {
+    expect:
+    counters.sameAt(other, 1)
+
+    when:
+    counters.add(1, 0)
+
+    then:
+    !counters.sameAt(other, 1)
+
+    when:
+    other.set(1, 0)
+
+    then:
+    counters.sameAt(other, 1)
+    counters.sameAs(other)
+  }
+
+  def "grows past the first segment without losing counts"() {
+    when:
+    counters.add(3, 2)
+    counters.add(40, 5)
+    counters.add(17, 1)
+    counters.add(40, 1)
+
+    then:
+    counters.toString() == "{3=2, 17=1, 40=6}"
+    !counters.sameAs(other)
+
+    when:
+    other.set(40, 6)
+    other.set(17, 1)
+    other.set(3, 2)
+
+    then:
+    counters.sameAs(other)
+    other.sameAs(counters)
+    counters.sameAt(other, 100)
+  }
+
+  def "a level is marked once"() {
+    expect:
+    counters.mark(20)
+    !counters.mark(20)
+    counters.mark(21)
+  }
+
+  def "concurrent additions are never lost while the counters grow"() {
+    given:
+    def threads = 8
+    def additions = 1000
+    def levels = 64
+    def start = new CountDownLatch(1)
+    def executor = Executors.newFixedThreadPool(threads)
+    def expected = new LevelCounters()
+    (0..<levels).each { expected.set(it, threads * additions) }
+
+    when:
+    def futures = (1..threads).collect {
+      executor.submit {
+        start.await()
+        additions.times { i ->
+          (0..<levels).each { level -> counters.add(level, 1) }
+        }
+      }
+    }
+    start.countDown()
+    futures*.get(30, TimeUnit.SECONDS)
+
+    then:
+    counters.sameAs(expected)
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "concurrent additions and comparisons agree once all calls happened"() {
+    given:
+    def threads = 4
+    def additions = 1000
+    def level = 33
+    def start = new CountDownLatch(1)
+    def executor = Executors.newFixedThreadPool(threads + 1)
+    def expected = new LevelCounters()
+    expected.add(level, threads * additions)
+
+    when:
+    def futures = (1..threads).collect {
+      executor.submit {
+        start.await()
+        additions.times { counters.add(level, 1) }
+      }
+    }
+    // all calls have happened once the counters match, so they must keep matching
+    def matchedThenDiffered = executor.submit({
+      start.await()
+      def matched = false
+      while (!futures.every { it.isDone() }) {
+        def same = counters.sameAt(expected, level)
+        if (matched && !same) {
+          return true
+        }
+        matched |= same
+      }
+      false
+    } as Callable<Boolean>)
+    start.countDown()
+    futures*.get(30, TimeUnit.SECONDS)
+
+    then:
+    !matchedThenDiffered.get(30, TimeUnit.SECONDS)
+    counters.sameAt(expected, level)
+    counters.toString() == "{33=4000}"
+
+    cleanup:
+    executor.shutdownNow()
+  }
+}
@@ -0,0 +1,186 @@
+package graphql.kickstart.execution.instrumentation
+
+import graphql.execution.ExecutionId
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class RequestStackTest extends Specification {
+
+  def stack = new RequestStack()
+  def first = ExecutionId.from("first")
+  def second = ExecutionId.from("second")
+
+  def "all executions are ready only once each of them is"() {
+    given:
+    stack.addExecution(first)
+    stack.addExecution(second)
+
+    expect:
+    !stack.allReady()
+
+    when:
+    stack.setStatus(first, true)
+
+    then:
+    !stack.allReady()
+
+    when:
+    stack.setStatus(second, true)
+
+    then:
+    stack.allReady()
+
+    when:
+    stack.allReset()
+
+    then:
+    !stack.allReady()
+  }
+
+  def "removing an execution that is not ready releases the others"() {
+    given:
+    stack.addExecution(first)
+    stack.addExecution(second)
+    stack.setStatus(first, true)
+
+    when:
+    stack.removeExecution(second)
+
+    then:
+    stack.allReady()
+    !stack.contains(second)
+  }
+
+  def "executions that dispatched different levels are not ready together"() {
+    given:
+    stack.addExecution(first)
+    stack.addExecution(second)
+    stack.setStatus(first, true)
+    stack.setStatus(second, true)
+
+    when:
+    stack.dispatchIfNotDispatchedBefore(first, 2)
+
+    then:
+    !stack.allReady()
+
+    when:
+    stack.dispatchIfNotDispatchedBefore(second, 2)
+
+    then:
+    stack.allReady()
+  }
+
+  def "an execution can be added once"() {
+    given:
+    stack.addExecution(first)
+
+    expect:
+    !stack.addExecutionIfAbsent(first)
+
+    when:
+    stack.addExecution(first)
+
+    then:
+    thrown(IllegalStateException)
+  }
+
+  def "counts levels past the first counter segment"() {
+    given:
+    stack.addExecution(first)
+
+    when:
+    stack.increaseExpectedFetchCount(first, 20, 2)
+    stack.increaseFetchCount(first, 20)
+
+    then:
+    !stack.allFetchesHappened(first, 20)
+
+    when:
+    stack.increaseFetchCount(first, 20)
+    stack.increaseExpectedStrategyCalls(first, 20, 1)
+    stack.increaseHappenedStrategyCalls(first, 20)
+    stack.increaseHappenedOnFieldValueCalls(first, 20)
+
+    then:
+    stack.allFetchesHappened(first, 20)
+    stack.allStrategyCallsHappened(first, 20)
+    stack.allOnFieldCallsHappened(first, 20)
+  }
+
+  def "a level found ready by several threads is dispatched once"() {
+    given:
+    stack.addExecution(first)
+    def threads = 8
+    def start = new CountDownLatch(1)
+    def executor = Executors.newFixedThreadPool(threads)
+
+    when:
+    def futures = (1..threads).collect {
+      executor.submit({
+        start.await()
+        stack.dispatchIfNotDispatchedBefore(first, 3)
+      } as Callable<Boolean>)
+    }
+    start.countDown()
+    def dispatched = futures.collect { it.get(30, TimeUnit.SECONDS) }
+
+    then:
+    dispatched.count { it } == 1
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "concurrent executions all become ready"() {
+    given:
+    def ids = (1..64).collect { ExecutionId.from("execution-$it") }
+    def start = new CountDownLatch(1)
+    def executor = Executors.newFixedThreadPool(8)
+
+    when:
+    def futures = ids.collect { id ->
+      executor.submit {
+        start.await()
+        stack.addExecution(id)
+        stack.increaseExpectedFetchCount(id, 1, 1)
+        stack.increaseFetchCount(id, 1)
+        stack.setStatus(id, stack.allFetchesHappened(id, 1))
+      }
+    }
+    start.countDown()
+    futures*.get(30, TimeUnit.SECONDS)
+
+    then:
+    stack.allReady()
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "an execution becoming ready during a dispatch stays ready"() {
+    given:
+    FieldLevelTrackingApproach approach = null
+    def registry = new DataLoaderRegistry() {
+      @Override
+      void dispatchAll() {
+        // a field fetch completes while the data loaders dispatch
+        approach.getStack().setStatus(first, true)
+      }
+    }
+    approach = new FieldLevelTrackingApproach(registry)
+    approach.createState(first)
+    approach.getStack().setStatus(first, true)
+
+    when:
+    approach.dispatch()
+
+    then:
+    approach.getStack().allReady()
+  }
+}
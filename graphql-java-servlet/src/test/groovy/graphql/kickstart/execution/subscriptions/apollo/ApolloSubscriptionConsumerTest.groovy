@@ -0,0 +1,133 @@
+package graphql.kickstart.execution.subscriptions.apollo
+
+import graphql.ExecutionResultImpl
+import graphql.kickstart.execution.GraphQLInvoker
+import graphql.kickstart.execution.GraphQLObjectMapper
+import graphql.kickstart.execution.GraphQLRequest
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionInvocationInputFactory
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper
+import graphql.kickstart.execution.subscriptions.SubscriptionSession
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.CompletableFuture
+
+class ApolloSubscriptionConsumerTest extends Specification {
+
+  def objectMapper = GraphQLObjectMapper.newBuilder().build()
+  def session = Mock(SubscriptionSession)
+  def commandProvider = Mock(ApolloCommandProvider)
+  def command = Mock(SubscriptionCommand)
+  def consumer = new ApolloSubscriptionConsumer(session, objectMapper, commandProvider)
+
+  OperationMessage accept(String request) {
+    OperationMessage received = null
+    commandProvider.getByType(_) >> command
+    command.apply(session, _) >> { SubscriptionSession s, OperationMessage message ->
+      received = message
+    }
+    consumer.accept(request)
+    received
+  }
+
+  @Unroll
+  def "#description is read as a map"() {
+    when:
+    def message = accept(request)
+
+    then:
+    message.type == Type.GQL_START
+    message.id == "1"
+    message.payload instanceof Map
+    message.payload == [query: "subscription { echo }", variables: [a: 1]]
+
+    where:
+    description             | request
+    "start payload"         | '{"type":"start","id":"1","payload":{"query":"subscription { echo }","variables":{"a":1}}}'
+    "payload before type"   | '{"payload":{"query":"subscription { echo }","variables":{"a":1}},"id":"1","type":"start"}'
+    "payload next to extra" | '{"type":"start","extra":{"type":"stop","id":"2"},"id":"1","payload":{"query":"subscription { echo }","variables":{"a":1}}}'
+  }
+
+  def "payloads of other messages are read as plain objects"() {
+    when:
+    def message = accept('{"type":"connection_init","payload":{"token":"secret"}}')
+
+    then:
+    message.type == Type.GQL_CONNECTION_INIT
+    message.id == null
+    message.payload == [token: "secret"]
+  }
+
+  def "null payload is read as null"() {
+    when:
+    def message = accept('{"type":"stop","id":"1","payload":null}')
+
+    then:
+    message.type == Type.GQL_STOP
+    message.payload == null
+  }
+
+  @Unroll
+  def "#field that is not a scalar is skipped"() {
+    when:
+    def message = accept(request)
+
+    then:
+    message.type == type
+    message.id == null
+    message.payload == [query: "{ echo }"]
+
+    where:
+    field  | type           | request
+    "id"   | Type.GQL_START | '{"type":"start","id":{"type":"stop","id":"2"},"payload":{"query":"{ echo }"}}'
+    "id"   | Type.GQL_START | '{"id":["stop",{"id":"2"}],"type":"start","payload":{"query":"{ echo }"}}'
+    "type" | null           | '{"type":{"type":"start"},"payload":{"query":"{ echo }"}}'
+  }
+
+  @Unroll
+  def "#description is answered with a connection error"() {
+    when:
+    consumer.accept(request)
+
+    then:
+    0 * command.apply(_, _)
+    1 * session.sendMessage({ OperationMessage it -> it.type == Type.GQL_CONNECTION_ERROR })
+
+    where:
+    description       | request
+    "malformed JSON"  | '{"type":"start",'
+    "non-object JSON" | '["start"]'
+  }
+
+  def "start command builds the request from a map payload"() {
+    given:
+    GraphQLRequest request = null
+    def invocationInputFactory = Mock(GraphQLSubscriptionInvocationInputFactory) {
+      create(_, session) >> { GraphQLRequest graphQLRequest, SubscriptionSession s ->
+        request = graphQLRequest
+        null
+      }
+    }
+    def invoker = Mock(GraphQLInvoker) {
+      executeAsync(_) >> new CompletableFuture()
+    }
+    def listener = Mock(ApolloSubscriptionConnectionListener)
+    def startCommand = new SubscriptionStartCommand(
+        new GraphQLSubscriptionMapper(objectMapper), invocationInputFactory, invoker, [listener])
+
+    when:
+    startCommand.apply(session, new OperationMessage(Type.GQL_START, "1", payload))
+
+    then:
+    1 * listener.onStart(session, { OperationMessage it -> it.payload.is(payload) })
+    request.query == "{ echo }"
+    request.variables == [a: 1]
+    request.operationName == operationName
+
+    where:
+    payload                                                      | operationName
+    [query: "{ echo }", variables: [a: 1], operationName: "Echo"] | "Echo"
+    [query: "{ echo }", variables: '{"a":1}']                     | null
+  }
+}
@@ -0,0 +1,124 @@
+package graphql.kickstart.execution.subscriptions.apollo
+
+import graphql.kickstart.execution.subscriptions.DefaultSubscriptionSession
+import graphql.kickstart.execution.subscriptions.SubscriptionSession
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ApolloSubscriptionKeepAliveRunnerTest extends Specification {
+
+  static final String KEEP_ALIVE = '{"type":"ka"}'
+
+  def runner = new ApolloSubscriptionKeepAliveRunner(Duration.ofHours(16))
+
+  def cleanup() {
+    runner.shutdown()
+  }
+
+  def "tick thread is started by the first session only"() {
+    expect:
+    !runner.isStarted()
+
+    when:
+    runner.keepAlive(Mock(SubscriptionSession))
+
+    then:
+    runner.isStarted()
+  }
+
+  def "session is visited once per interval starting a full interval after it was added"() {
+    given:
+    def session = Mock(SubscriptionSession)
+    session.isOpen() >> true
+    runner.tick(0)
+    runner.keepAlive(session)
+
+    when:
+    15.times { runner.tick(0) }
+
+    then:
+    0 * session.send(_)
+
+    when:
+    runner.tick(0)
+
+    then:
+    1 * session.send(KEEP_ALIVE)
+
+    when:
+    16.times { runner.tick(0) }
+
+    then:
+    1 * session.send(KEEP_ALIVE)
+  }
+
+  def "sessions that sent a message during the last half interval are skipped"() {
+    given:
+    List<String> sent = []
+    def session = new DefaultSubscriptionSession(null) {
+      void send(String message) {
+        sent << message
+      }
+
+      boolean isOpen() {
+        true
+      }
+    }
+    runner.keepAlive(session)
+    def lastSend = session.getLastSendNanoTime()
+
+    when:
+    16.times { runner.tick(lastSend + Duration.ofHours(7).toNanos()) }
+
+    then:
+    sent.isEmpty()
+
+    when:
+    16.times { runner.tick(lastSend + Duration.ofHours(8).toNanos()) }
+
+    then:
+    sent == [KEEP_ALIVE]
+  }
+
+  def "keep alive is aborted for closed sessions"() {
+    given:
+    def session = Mock(SubscriptionSession)
+    runner.keepAlive(session)
+
+    when:
+    16.times { runner.tick(0) }
+
+    then:
+    1 * session.isOpen() >> false
+    0 * session.send(_)
+
+    when:
+    16.times { runner.tick(0) }
+
+    then:
+    0 * session.isOpen()
+  }
+
+  def "keep alive is aborted when sending fails"() {
+    given:
+    def session = Mock(SubscriptionSession)
+    session.isOpen() >> true
+    runner.keepAlive(session)
+
+    when:
+    32.times { runner.tick(0) }
+
+    then:
+    1 * session.send(KEEP_ALIVE) >> { throw new IllegalStateException("closed") }
+  }
+
+  def "shutdown before the first session keeps the tick thread from starting"() {
+    when:
+    runner.shutdown()
+    runner.keepAlive(Mock(SubscriptionSession))
+
+    then:
+    !runner.isStarted()
+  }
+}
@@ -0,0 +1,101 @@
+package graphql.kickstart.execution.subscriptions.apollo
+
+import com.fasterxml.jackson.annotation.JsonInclude
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.PropertyNamingStrategies
+import graphql.kickstart.execution.GraphQLObjectMapper
+import graphql.kickstart.execution.config.GraphQLServletObjectMapperConfigurer
+import graphql.kickstart.execution.subscriptions.GraphQLSubscriptionMapper
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage.Type
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class OperationMessageEncoderTest extends Specification {
+
+  static GraphQLSubscriptionMapper mapper(Closure configurer) {
+    def builder = GraphQLObjectMapper.newBuilder()
+    if (configurer != null) {
+      builder.withObjectMapperConfigurer(configurer as GraphQLServletObjectMapperConfigurer)
+    }
+    new GraphQLSubscriptionMapper(builder.build())
+  }
+
+  def mapper = mapper(null)
+  def encoder = new OperationMessageEncoder(mapper)
+
+  @Unroll
+  def "#type frame without id and payload is the constant frame"() {
+    expect:
+    encoder.encode(type, null, null) == mapper.serialize(new OperationMessage(type, null, null))
+    encoder.encode(type, null, null) == OperationMessageEncoder.constantFrame(type)
+
+    where:
+    type << Type.values()
+  }
+
+  @Unroll
+  def "id #id is written like the object mapper writes it"() {
+    given:
+    def message = new OperationMessage(Type.GQL_DATA, id, [data: [echo: "test"]])
+
+    expect:
+    encoder.encode(message) == mapper.serialize(message)
+
+    where:
+    id << ["1", 'quote"d', "back\\slash", "new\nline", "tab\t", "control\u0001", "unicodeé "]
+  }
+
+  def "null payload is left out"() {
+    given:
+    def message = new OperationMessage(Type.GQL_COMPLETE, "1", null)
+
+    expect:
+    encoder.encode(message) == '{"type":"complete","id":"1"}'
+    encoder.encode(message) == mapper.serialize(message)
+  }
+
+  def "payload without id is written like the object mapper writes it"() {
+    given:
+    def payload = [message: "failed", nested: null]
+    def message = new OperationMessage(Type.GQL_CONNECTION_ERROR, null, payload)
+
+    expect:
+    encoder.encode(message) == mapper.serialize(message)
+  }
+
+  def "message without type is written by the object mapper"() {
+    given:
+    def message = new OperationMessage(null, "1", "payload")
+
+    expect:
+    encoder.encode(message) == mapper.serialize(message)
+  }
+
+  @Unroll
+  def "envelope follows the object mapper when it is #configured"() {
+    given:
+    def mapper = mapper(configurer)
+    def encoder = new OperationMessageEncoder(mapper)
+
+    expect:
+    [
+        new OperationMessage(Type.GQL_CONNECTION_ACK, null, null),
+        new OperationMessage(Type.GQL_DATA, "1", [data: null]),
+        new OperationMessage(Type.GQL_COMPLETE, "1", null),
+    ].every { encoder.encode(it) == mapper.serialize(it) }
+
+    where:
+    configured            | configurer
+    "renaming properties" | { ObjectMapper it -> renameProperties(it) }
+    "including nulls"     | { ObjectMapper it -> includeNulls(it) }
+  }
+
+  static void renameProperties(ObjectMapper mapper) {
+    mapper.setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE)
+  }
+
+  static void includeNulls(ObjectMapper mapper) {
+    mapper.configOverride(OperationMessage)
+        .setInclude(JsonInclude.Value.construct(JsonInclude.Include.ALWAYS, null))
+  }
+}
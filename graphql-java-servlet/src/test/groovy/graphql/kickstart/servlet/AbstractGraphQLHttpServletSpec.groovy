@@ -5,17 +5,30 @@ import graphql.Scalars
 import graphql.execution.ExecutionStepInfo
 import graphql.execution.MergedField
 import graphql.execution.reactive.SingleSubscriberPublisher
+import graphql.kickstart.execution.config.CachingPreparsedDocumentProvider
+import graphql.kickstart.execution.persisted.InMemoryPersistedQueryStore
+import graphql.kickstart.servlet.core.GraphQLServletListener
 import graphql.kickstart.servlet.input.GraphQLInvocationInputFactory
 import graphql.language.Field
 import graphql.schema.GraphQLNonNull
+import jakarta.servlet.ReadListener
+import jakarta.servlet.ServletInputStream
+import jakarta.servlet.ServletOutputStream
+import jakarta.servlet.WriteListener
+import jakarta.servlet.http.HttpServletResponseWrapper
 import org.springframework.mock.web.MockHttpServletRequest
 import org.springframework.mock.web.MockHttpServletResponse
 import spock.lang.Shared
 import spock.lang.Specification
 
 import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.atomic.AtomicReference
 
 /**
@@ -147,6 +160,25 @@ class AbstractGraphQLHttpServletSpec extends Specification {
     request.asyncContext == null
   }
 
+  def "query over HTTP GET rejected by the async executor returns service unavailable"() {
+    setup:
+    def configuration = GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with({ throw new RejectedExecutionException() } as Executor)
+        .asyncRetryAfter(5)
+        .build()
+    servlet = GraphQLHttpServlet.with(configuration)
+    request.addParameter('query', 'query { echo(arg:"test") }')
+
+    when:
+    servlet.doGet(request, response)
+
+    then:
+    response.getStatus() == 503
+    response.getHeader("Retry-After") == "5"
+    configuration.getAsyncRejectedCount() == 1
+  }
+
   def "query over HTTP GET with variables returns data"() {
     setup:
     request.addParameter('query', 'query Echo($arg: String) { echo(arg:$arg) }')
@@ -422,6 +454,308 @@ class AbstractGraphQLHttpServletSpec extends Specification {
     getResponseContent().data.echo == "test"
   }
 
+  def "query over HTTP POST body with only whitespace returns bad request"() {
+    setup:
+    request.setContent(" \n ".bytes)
+    request.setMethod("POST")
+
+    when:
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_BAD_REQUEST
+  }
+
+  def "persisted query over HTTP POST is registered and then resolved by its hash"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with(new InMemoryPersistedQueryStore())
+        .build())
+    def query = 'query { echo(arg:"test") }'
+    def hash = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8)).encodeHex().toString()
+    def extensions = [persistedQuery: [version: 1, sha256Hash: hash]]
+
+    when:
+    request.setAsyncSupported(false)
+    request.setMethod("POST")
+    request.setContent(mapper.writeValueAsBytes([extensions: extensions]))
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    getResponseContent().errors[0].message == "PersistedQueryNotFound"
+    getResponseContent().errors[0].extensions.code == "PERSISTED_QUERY_NOT_FOUND"
+
+    when:
+    response = new MockHttpServletResponse()
+    request.setContent(mapper.writeValueAsBytes([query: query, extensions: extensions]))
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    getResponseContent().data.echo == "test"
+
+    when:
+    response = new MockHttpServletResponse()
+    def getRequest = new MockHttpServletRequest()
+    getRequest.setMethod("GET")
+    getRequest.addParameter("extensions", mapper.writeValueAsString(extensions))
+    servlet.doGet(getRequest, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    getResponseContent().data.echo == "test"
+  }
+
+  def "batched persisted queries are resolved per entry"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with(new InMemoryPersistedQueryStore())
+        .build())
+    def unknown = [persistedQuery: [version: 1, sha256Hash: "0" * 64]]
+    request.setAsyncSupported(false)
+    request.setMethod("POST")
+    request.setContent(mapper.writeValueAsBytes([
+        [query: 'query { echo(arg:"test") }'],
+        [extensions: unknown]
+    ]))
+
+    when:
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    getBatchedResponseContent()[0].data.echo == "test"
+    getBatchedResponseContent()[1].errors[0].extensions.code == "PERSISTED_QUERY_NOT_FOUND"
+  }
+
+  def "HTTP GET without query and persisted query extension returns bad request"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with(new InMemoryPersistedQueryStore())
+        .build())
+    request.addParameter("extensions", '{"other":true}')
+
+    when:
+    servlet.doGet(request, response)
+
+    then:
+    response.getStatus() == STATUS_BAD_REQUEST
+  }
+
+  def "preparsed document cache reuses documents of repeated queries and evicts the least recently used"() {
+    setup:
+    def cache = new CachingPreparsedDocumentProvider(2)
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with(cache)
+        .build())
+    def post = { String query ->
+      response = new MockHttpServletResponse()
+      request = new MockHttpServletRequest()
+      request.setAsyncSupported(false)
+      request.setMethod("POST")
+      request.setContent(mapper.writeValueAsBytes([query: query]))
+      servlet.doPost(request, response)
+      getResponseContent().data.echo
+    }
+
+    expect:
+    post('query { echo(arg:"a") }') == "a"
+    post('query { echo(arg:"a") }') == "a"
+    cache.hitCount == 1
+    cache.missCount == 1
+
+    when:
+    post('query { echo(arg:"b") }')
+    post('query { echo(arg:"a") }')
+    post('query { echo(arg:"c") }')
+
+    then:
+    cache.size() == 2
+    cache.evictionCount == 1
+    post('query { echo(arg:"a") }') == "a"
+    cache.hitCount == 3
+  }
+
+  def "non-blocking io reads the body and writes the response only when the streams are ready"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with({ it.run() } as Executor)
+        .nonBlockingIO(true)
+        .build())
+    def body = mapper.writeValueAsBytes([query: 'query { echo(arg:"test") }'])
+    def available = new AtomicInteger(10)
+    def readListener = new AtomicReference<ReadListener>()
+    def input = new ServletInputStream() {
+      int position
+
+      boolean isFinished() { position == body.length }
+
+      boolean isReady() { position < Math.min(available.get(), body.length) }
+
+      void setReadListener(ReadListener listener) { readListener.set(listener) }
+
+      int read() { body[position++] & 0xff }
+
+      // one byte per call, so isReady() is checked in between
+      int read(byte[] b, int off, int len) {
+        b[off] = (byte) read()
+        return 1
+      }
+    }
+    def written = new ByteArrayOutputStream()
+    def ready = new AtomicBoolean(true)
+    def writeListener = new AtomicReference<WriteListener>()
+    def output = new ServletOutputStream() {
+      boolean isReady() { ready.getAndSet(false) }
+
+      void setWriteListener(WriteListener listener) { writeListener.set(listener) }
+
+      void write(int b) { written.write(b) }
+    }
+    request = new MockHttpServletRequest() {
+      ServletInputStream getInputStream() { input }
+    }
+    request.setAsyncSupported(true)
+    request.setMethod("POST")
+    request.setContentType("application/json")
+    def nonBlockingResponse = new HttpServletResponseWrapper(response) {
+      ServletOutputStream getOutputStream() { output }
+    }
+
+    when:
+    servlet.doPost(request, nonBlockingResponse)
+    readListener.get().onDataAvailable()
+
+    then:
+    request.isAsyncStarted()
+    writeListener.get() == null
+
+    when:
+    available.set(body.length)
+    readListener.get().onDataAvailable()
+    readListener.get().onAllDataRead()
+    writeListener.get().onWritePossible()
+
+    then:
+    request.isAsyncStarted()
+
+    when:
+    ready.set(true)
+    writeListener.get().onWritePossible()
+
+    then:
+    !request.isAsyncStarted()
+    response.getStatus() == STATUS_OK
+    mapper.readValue(written.toByteArray(), Map).data.echo == "test"
+  }
+
+  def "non-blocking io rejects bodies larger than the limit"() {
+    setup:
+    def callback = Mock(GraphQLServletListener.RequestCallback)
+    def servletListener = Mock(GraphQLServletListener) { onRequest(_, _) >> callback }
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with([servletListener])
+        .nonBlockingIO(true)
+        .maxRequestBodySize(16)
+        .build())
+    def body = mapper.writeValueAsBytes([query: 'query { echo(arg:"test") }'])
+    def readListener = new AtomicReference<ReadListener>()
+    def input = new ServletInputStream() {
+      int position
+
+      boolean isFinished() { position == body.length }
+
+      boolean isReady() { !isFinished() }
+
+      void setReadListener(ReadListener listener) { readListener.set(listener) }
+
+      int read() { body[position++] & 0xff }
+
+      int read(byte[] b, int off, int len) {
+        b[off] = (byte) read()
+        return 1
+      }
+    }
+    request = new MockHttpServletRequest() {
+      ServletInputStream getInputStream() { input }
+    }
+    request.setAsyncSupported(true)
+    request.setMethod("POST")
+
+    when:
+    servlet.doPost(request, response)
+    readListener.get().onDataAvailable()
+
+    then:
+    !request.isAsyncStarted()
+    response.getStatus() == 413
+    input.position < body.length
+    1 * callback.onFinally(_, _)
+  }
+
+  def "non-blocking io rejects a declared content length larger than the limit before reading"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .nonBlockingIO(true)
+        .maxRequestBodySize(16)
+        .build())
+    request.setAsyncSupported(true)
+    request.setMethod("POST")
+    request.setContent(mapper.writeValueAsBytes([query: 'query { echo(arg:"test") }']))
+
+    when:
+    servlet.doPost(request, response)
+
+    then:
+    !request.isAsyncStarted()
+    response.getStatus() == 413
+  }
+
+  def "non-blocking io read error notifies listeners"() {
+    setup:
+    def callback = Mock(GraphQLServletListener.RequestCallback)
+    def servletListener = Mock(GraphQLServletListener) { onRequest(_, _) >> callback }
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .with([servletListener])
+        .nonBlockingIO(true)
+        .build())
+    def readListener = new AtomicReference<ReadListener>()
+    def input = new ServletInputStream() {
+      boolean isFinished() { false }
+
+      boolean isReady() { false }
+
+      void setReadListener(ReadListener listener) { readListener.set(listener) }
+
+      int read() { -1 }
+    }
+    request = new MockHttpServletRequest() {
+      ServletInputStream getInputStream() { input }
+    }
+    request.setAsyncSupported(true)
+    request.setMethod("POST")
+    def error = new IOException("connection reset")
+
+    when:
+    servlet.doPost(request, response)
+    readListener.get().onError(error)
+
+    then:
+    !request.isAsyncStarted()
+    response.getStatus() == STATUS_BAD_REQUEST
+    1 * callback.onError(_, _, error)
+    1 * callback.onFinally(_, _)
+  }
+
   def "query over HTTP POST multiline body returns data"() {
     setup:
     request.setContent("""
@@ -787,6 +1121,47 @@ b
     getBatchedResponseContent()[1].data.echo == "test"
   }
 
+  def "batched query over HTTP POST body with leading whitespace returns data"() {
+    setup:
+    request.setContent(' \r\n\t[{ "query": "query { echo(arg:\\"test\\") }" }, { "query": "query { echo(arg:\\"test\\") }" }]'.bytes)
+    request.setMethod("POST")
+
+    when:
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    response.getContentType() == CONTENT_TYPE_JSON_UTF8
+    getBatchedResponseContent()[0].data.echo == "test"
+    getBatchedResponseContent()[1].data.echo == "test"
+  }
+
+  def "batched query over HTTP POST body is delivered incrementally when multipart is accepted"() {
+    setup:
+    servlet = GraphQLHttpServlet.with(GraphQLConfiguration
+        .with(TestUtils.createGraphQlSchema())
+        .incrementalBatchDelivery(true)
+        .build())
+    request.setAsyncSupported(false)
+    request.addHeader("Accept", "multipart/mixed")
+    request.setContent('[{ "query": "query { echo(arg:\\"first\\") }" }, { "query": "query { echo(arg:\\"second\\") }" }]'.bytes)
+    request.setMethod("POST")
+
+    when:
+    servlet.doPost(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    response.getContentType().startsWith("multipart/mixed")
+    response.getContentAsString().endsWith("\r\n-----\r\n")
+    def parts = response.getContentAsString().split("\r\n---\r\n").findAll { it.contains("{") }
+        .collect { mapper.readValue(it.substring(it.indexOf("\r\n\r\n") + 4).replace("\r\n-----\r\n", ""), Map) }
+        .sort { it.index }
+    parts.size() == 2
+    parts[0].data.echo == "first"
+    parts[1].data.echo == "second"
+  }
+
   def "batched query over HTTP POST body with variables returns data"() {
     setup:
     request.setContent('[{ "query": "query { echo(arg:\\"test\\") }", "variables": { "arg": "test" } }, { "query": "query { echo(arg:\\"test\\") }", "variables": { "arg": "test" } }]'.bytes)
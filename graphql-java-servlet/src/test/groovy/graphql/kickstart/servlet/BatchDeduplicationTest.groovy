@@ -0,0 +1,94 @@
+package graphql.kickstart.servlet
+
+import graphql.kickstart.execution.GraphQLInvoker
+import graphql.kickstart.execution.GraphQLQueryInvoker
+import graphql.kickstart.execution.GraphQLRequest
+import graphql.kickstart.execution.context.ContextSetting
+import graphql.kickstart.execution.context.DefaultGraphQLContext
+import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput
+import graphql.schema.GraphQLSchema
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class BatchDeduplicationTest extends Specification {
+
+  AtomicInteger queryCount = new AtomicInteger()
+  AtomicInteger mutationCount = new AtomicInteger()
+  GraphQLSchema schema = TestUtils.createGraphQlSchema(
+      { env -> queryCount.incrementAndGet(); env.arguments.arg },
+      { env -> mutationCount.incrementAndGet(); env.arguments.arg })
+
+  GraphQLInvoker invoker(boolean deduplicateBatches) {
+    GraphQLQueryInvoker.newBuilder()
+        .withBatchDeduplication(deduplicateBatches)
+        .build()
+        .toGraphQLInvoker()
+  }
+
+  GraphQLBatchedInvocationInput batch(ContextSetting contextSetting = ContextSetting.PER_QUERY, GraphQLRequest... requests) {
+    contextSetting.getBatch(requests.toList(), schema, { new DefaultGraphQLContext() }, null)
+  }
+
+  GraphQLRequest request(String query, Map<String, Object> variables = [:]) {
+    new GraphQLRequest(query, variables, [:], null)
+  }
+
+  def "identical queries are executed once and their result is shared"() {
+    given:
+    def query = 'query Echo($arg: String) { echo(arg: $arg) }'
+
+    when:
+    def results = invoker(true).execute(batch(
+        contextSetting,
+        request(query, [arg: "a"]),
+        request(query, [arg: "b"]),
+        request(query, [arg: "a"]),
+        request(query, [arg: "a"])))
+        .thenApplyQueryResult().join().getResults()
+
+    then:
+    results*.data.echo == ["a", "b", "a", "a"]
+    results[0].is(results[2])
+    results[0].is(results[3])
+    queryCount.get() == 2
+
+    where:
+    contextSetting << [ContextSetting.PER_QUERY, ContextSetting.PER_REQUEST]
+  }
+
+  def "mutations are executed for every entry"() {
+    when:
+    def results = invoker(true).execute(batch(
+        request('mutation { echo(arg: "a") }'),
+        request('mutation { echo(arg: "a") }')))
+        .thenApplyQueryResult().join().getResults()
+
+    then:
+    results*.data.echo == ["a", "a"]
+    mutationCount.get() == 2
+  }
+
+  def "identical queries are executed for every entry unless enabled"() {
+    when:
+    def results = invoker(false).execute(batch(
+        request('{ echo(arg: "a") }'),
+        request('{ echo(arg: "a") }')))
+        .thenApplyQueryResult().join().getResults()
+
+    then:
+    results*.data.echo == ["a", "a"]
+    queryCount.get() == 2
+  }
+
+  def "invalid queries report their errors at every position"() {
+    when:
+    def results = invoker(true).execute(batch(
+        request('{ echo(arg: "a" '),
+        request('{ echo(arg: "a" ')))
+        .thenApplyQueryResult().join().getResults()
+
+    then:
+    results.every { !it.errors.isEmpty() }
+  }
+}
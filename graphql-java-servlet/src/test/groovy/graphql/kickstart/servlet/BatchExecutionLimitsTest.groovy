@@ -0,0 +1,86 @@
+package graphql.kickstart.servlet
+
+import graphql.kickstart.execution.GraphQLInvoker
+import graphql.kickstart.execution.GraphQLQueryInvoker
+import graphql.kickstart.execution.GraphQLRequest
+import graphql.kickstart.execution.context.ContextSetting
+import graphql.kickstart.execution.context.DefaultGraphQLContext
+import graphql.kickstart.execution.input.GraphQLBatchedInvocationInput
+import graphql.schema.GraphQLSchema
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+class BatchExecutionLimitsTest extends Specification {
+
+  AtomicInteger running = new AtomicInteger()
+  AtomicInteger maxRunning = new AtomicInteger()
+  GraphQLSchema schema = TestUtils.createGraphQlSchema({ env ->
+    String arg = env.arguments.arg
+    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+    CompletableFuture.supplyAsync({
+      Thread.sleep(20)
+      running.decrementAndGet()
+      arg
+    })
+  })
+
+  GraphQLInvoker invoker(int maxInFlightPerBatch, int maxInFlight) {
+    GraphQLQueryInvoker.newBuilder()
+        .withBatchExecutionLimits(maxInFlightPerBatch, maxInFlight)
+        .build()
+        .toGraphQLInvoker()
+  }
+
+  GraphQLBatchedInvocationInput batch(int size, GraphQLSchema schema = this.schema) {
+    def requests = (0..<size).collect {
+      new GraphQLRequest("query { echo(arg: \"$it\") }", [:], [:], null)
+    }
+    ContextSetting.PER_QUERY.getBatch(requests, schema, { new DefaultGraphQLContext() }, null)
+  }
+
+  def "starts at most the configured number of executions of a batch at once"() {
+    when:
+    def results = invoker(2, 100).execute(batch(6)).thenApplyQueryResult().join().getResults()
+
+    then:
+    results*.data.echo == ["0", "1", "2", "3", "4", "5"]
+    maxRunning.get() == 2
+  }
+
+  def "limit given for a batch replaces the configured one"() {
+    when:
+    def results = invoker(4, 100).execute(batch(4), 1).thenApplyQueryResult().join().getResults()
+
+    then:
+    results*.data.echo == ["0", "1", "2", "3"]
+    maxRunning.get() == 1
+  }
+
+  def "batches share the overall limit"() {
+    given:
+    def invoker = invoker(2, 3)
+
+    when:
+    def first = invoker.execute(batch(6))
+    def second = invoker.execute(batch(6))
+    def results = [first, second].collect { it.thenApplyQueryResult().join().getResults() }
+
+    then:
+    results.every { it*.data.echo == ["0", "1", "2", "3", "4", "5"] }
+    maxRunning.get() == 3
+  }
+
+  def "large batch completing synchronously does not grow the stack"() {
+    given:
+    def schema = TestUtils.createGraphQlSchema()
+
+    when:
+    def results = invoker(1, 1).execute(batch(2000, schema)).thenApplyQueryResult().join().getResults()
+
+    then:
+    results.size() == 2000
+    results.last().data.echo == "1999"
+  }
+}
@@ -7,6 +7,7 @@ import graphql.execution.instrumentation.SimplePerformantInstrumentation
 import graphql.kickstart.execution.context.ContextSetting
 import graphql.kickstart.execution.context.DefaultGraphQLContext
 import graphql.kickstart.execution.context.GraphQLKickstartContext
+import graphql.kickstart.execution.instrumentation.CrossRequestBatchLoader
 import graphql.kickstart.servlet.context.GraphQLServletContextBuilder
 import graphql.schema.DataFetcher
 import graphql.schema.DataFetchingEnvironment
@@ -22,8 +23,10 @@ import jakarta.servlet.http.HttpServletRequest
 import jakarta.servlet.http.HttpServletResponse
 import jakarta.websocket.Session
 import jakarta.websocket.server.HandshakeRequest
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionStage
+import java.util.concurrent.Executor
 import java.util.concurrent.atomic.AtomicInteger
 
 class DataLoaderDispatchingSpec extends Specification {
@@ -80,30 +83,36 @@ class DataLoaderDispatchingSpec extends Specification {
     }
   }
 
-  def contextBuilder() {
+  def sharedRegistry(Map<String, BatchLoader<String, String>> batchLoaders) {
+    DataLoaderRegistry registry = new DataLoaderRegistry()
+    batchLoaders.each { name, batchLoader -> registry.register(name, DataLoaderFactory.newDataLoader(batchLoader)) }
+    registry
+  }
+
+  def contextBuilder(Closure<DataLoaderRegistry> registrySupplier = { registry() }) {
     return new GraphQLServletContextBuilder() {
       @Override
       GraphQLKickstartContext build(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
-        new DefaultGraphQLContext(registry())
+        new DefaultGraphQLContext(registrySupplier())
       }
 
       @Override
       GraphQLKickstartContext build(Session session, HandshakeRequest handshakeRequest) {
-        new DefaultGraphQLContext(registry())
+        new DefaultGraphQLContext(registrySupplier())
       }
 
       @Override
       GraphQLKickstartContext build() {
-        new DefaultGraphQLContext(registry())
+        new DefaultGraphQLContext(registrySupplier())
       }
     }
   }
 
-  def configureServlet(ContextSetting contextSetting) {
+  def configureServlet(ContextSetting contextSetting, GraphQLServletContextBuilder contextBuilder = contextBuilder()) {
     servlet = TestUtils.createDataLoadingServlet(queryDataFetcher("A", loadCounterA),
         queryDataFetcher("B", loadCounterB), queryDataFetcher("C", loadCounterC)
         , contextSetting,
-        contextBuilder())
+        contextBuilder)
   }
 
   def resetCounters() {
@@ -168,4 +177,33 @@ class DataLoaderDispatchingSpec extends Specification {
     fetchCounterC.get() == 1
     loadCounterC.get() == 2
   }
+
+  def "batched query with per query context and a shared batch loader batches loads of concurrent queries"() {
+    setup:
+    // loads on the thread filling the batch, so the response is complete when doGet returns
+    def sameThread = { it.run() } as Executor
+    def batchLoaders = [
+        A: new CrossRequestBatchLoader<String, String>(batchLoaderWithCounter(fetchCounterA), Duration.ofSeconds(5), 2, sameThread),
+        B: new CrossRequestBatchLoader<String, String>(batchLoaderWithCounter(fetchCounterB), Duration.ofSeconds(5), 2, sameThread)
+    ]
+    configureServlet(ContextSetting.PER_QUERY, contextBuilder({ sharedRegistry(batchLoaders) }))
+    request.addParameter('query', '[{ "query": "query { query(arg:\\"test\\") { echo(arg:\\"test\\") { echo(arg:\\"test\\") } }}" }, { "query": "query{query(arg:\\"test\\") { echo (arg:\\"test\\") { echo(arg:\\"test\\")} }}" }]')
+    resetCounters()
+    request.setMethod("GET")
+
+    when:
+    servlet.doGet(request, response)
+
+    then:
+    response.getStatus() == STATUS_OK
+    getBatchedResponseContent()[0].data.query.echo.echo == "test"
+    getBatchedResponseContent()[1].data.query.echo.echo == "test"
+    fetchCounterA.get() == 1
+    loadCounterA.get() == 2
+    fetchCounterB.get() == 1
+    loadCounterB.get() == 2
+
+    cleanup:
+    batchLoaders.values()*.shutdown()
+  }
 }
@@ -0,0 +1,150 @@
+package graphql.kickstart.servlet
+
+import graphql.ExecutionResultImpl
+import graphql.kickstart.execution.GraphQLObjectMapper
+import org.reactivestreams.Subscription
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import jakarta.servlet.AsyncContext
+import jakarta.servlet.ServletOutputStream
+import jakarta.servlet.http.HttpServletResponseWrapper
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicReference
+
+class ExecutionResultSubscriberTest extends Specification {
+
+  def response = new MockHttpServletResponse()
+  def asyncContext = Mock(AsyncContext) {
+    getResponse() >> response
+  }
+  def subscription = Mock(Subscription)
+  def tasks = []
+  def executor = { tasks << it } as Executor
+
+  private ExecutionResultSubscriber subscriber(SlowConsumerPolicy policy, int demand, int bufferSize) {
+    new ExecutionResultSubscriber(
+        new AtomicReference<Subscription>(), asyncContext, GraphQLObjectMapper.newBuilder().build(),
+        true, demand, bufferSize, policy, executor)
+  }
+
+  private static event(int i) {
+    ExecutionResultImpl.newExecutionResult().data([i: i]).build()
+  }
+
+  private List<String> events() {
+    response.getContentAsString().split("\n\n").findAll { it }
+  }
+
+  def "backpressure requests the demand window and more events only after writing"() {
+    given:
+    def subscriber = subscriber(SlowConsumerPolicy.BACKPRESSURE, 4, 1)
+
+    when:
+    subscriber.onSubscribe(subscription)
+
+    then:
+    1 * subscription.request(4)
+
+    when:
+    subscriber.onNext(event(1))
+
+    then:
+    1 * subscription.request(1)
+    tasks.isEmpty()
+    events() == ['data: {"data":{"i":1}}']
+  }
+
+  @Unroll
+  def "#policy keeps #expected of the events a slow client did not read yet"() {
+    given:
+    def subscriber = subscriber(policy, 8, 2)
+    subscriber.onSubscribe(subscription)
+
+    when:
+    (1..3).each { subscriber.onNext(event(it)) }
+    tasks.each { it.run() }
+
+    then:
+    events() == expected.collect { 'data: {"data":{"i":' + it + '}}' }
+
+    where:
+    policy                            | expected
+    SlowConsumerPolicy.DROP_OLDEST    | [2, 3]
+    SlowConsumerPolicy.CONFLATE_LATEST | [3]
+  }
+
+  def "disconnect closes the stream when the buffer overflows"() {
+    given:
+    def subscriber = subscriber(SlowConsumerPolicy.DISCONNECT, 8, 2)
+    subscriber.onSubscribe(subscription)
+
+    when:
+    (1..3).each { subscriber.onNext(event(it)) }
+
+    then:
+    1 * subscription.cancel()
+    0 * asyncContext.complete()
+    !subscriber.getCompletion().isDone()
+
+    when: "the thread draining the events terminates the stream"
+    tasks.each { it.run() }
+
+    then:
+    1 * asyncContext.complete()
+    subscriber.getCompletion().isDone()
+    events().isEmpty()
+  }
+
+  def "disconnect requested while events are written terminates after the write"() {
+    given:
+    ExecutionResultSubscriber subscriber
+    def fallBehind = { (2..3).each { subscriber.onNext(event(it)) } }
+    def writingResponse = new HttpServletResponseWrapper(response) {
+      ServletOutputStream getOutputStream() {
+        // the client falls behind while the first event is written
+        fallBehind()
+        super.getOutputStream()
+      }
+    }
+    def writingContext = Mock(AsyncContext) {
+      getResponse() >> writingResponse
+    }
+    subscriber = new ExecutionResultSubscriber(
+        new AtomicReference<Subscription>(), writingContext, GraphQLObjectMapper.newBuilder().build(),
+        true, 8, 1, SlowConsumerPolicy.DISCONNECT, executor)
+    subscriber.onSubscribe(subscription)
+
+    when:
+    subscriber.onNext(event(1))
+    tasks.each { it.run() }
+
+    then:
+    1 * subscription.cancel()
+    1 * writingContext.complete()
+    subscriber.getCompletion().isDone()
+    events() == ['data: {"data":{"i":1}}']
+  }
+
+  def "completion is signalled after pending events have been written"() {
+    given:
+    def subscriber = subscriber(SlowConsumerPolicy.DROP_OLDEST, 8, 8)
+    subscriber.onSubscribe(subscription)
+
+    when:
+    subscriber.onNext(event(1))
+    subscriber.onComplete()
+
+    then:
+    !subscriber.getCompletion().isDone()
+
+    when:
+    tasks.each { it.run() }
+
+    then:
+    events() == ['data: {"data":{"i":1}}']
+    1 * asyncContext.complete()
+    subscriber.getCompletion().isDone()
+  }
+}
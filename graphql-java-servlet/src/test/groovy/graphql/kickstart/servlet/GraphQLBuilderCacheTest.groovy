@@ -0,0 +1,114 @@
+package graphql.kickstart.servlet
+
+import graphql.execution.instrumentation.Instrumentation
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.kickstart.execution.GraphQLInvoker
+import graphql.kickstart.execution.GraphQLQueryInvoker
+import graphql.kickstart.execution.GraphQLRequest
+import graphql.kickstart.execution.config.GraphQLBuilder
+import graphql.kickstart.execution.context.DefaultGraphQLContext
+import graphql.kickstart.execution.input.GraphQLSingleInvocationInput
+import graphql.schema.GraphQLSchema
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+class GraphQLBuilderCacheTest extends Specification {
+
+  GraphQLSchema schema = TestUtils.createGraphQlSchema()
+  AtomicInteger instrumentationCalls = new AtomicInteger()
+  Supplier<Instrumentation> instrumentation = {
+    instrumentationCalls.incrementAndGet()
+    SimplePerformantInstrumentation.INSTANCE
+  }
+
+  def query(GraphQLInvoker invoker) {
+    def request = new GraphQLRequest('{ echo(arg: "test") }', [:], [:], null)
+    def input = new GraphQLSingleInvocationInput(request, schema, new DefaultGraphQLContext(), null)
+    invoker.executeAsync(input).join()
+  }
+
+  def "builds once per schema when caching is enabled"() {
+    given:
+    def builder = new GraphQLBuilder().instrumentation(instrumentation).cacheGraphQL(true)
+
+    when:
+    def first = builder.build(schema)
+    def second = builder.build(schema)
+    def other = builder.build(TestUtils.createGraphQlSchema())
+
+    then:
+    first.is(second)
+    !first.is(other)
+    instrumentationCalls.get() == 2
+  }
+
+  def "reconfiguring a supplier discards cached instances"() {
+    given:
+    def builder = new GraphQLBuilder().cacheGraphQL(true)
+    def first = builder.build(schema)
+
+    when:
+    builder.instrumentation(instrumentation)
+    def second = builder.build(schema)
+
+    then:
+    !first.is(second)
+    instrumentationCalls.get() == 1
+  }
+
+  def "builds for every request unless caching is enabled"() {
+    given:
+    def builder = new GraphQLBuilder().instrumentation(instrumentation)
+
+    when:
+    def first = builder.build(schema)
+    def second = builder.build(schema)
+
+    then:
+    !first.is(second)
+    instrumentationCalls.get() == 2
+  }
+
+  def "query invoker invokes an instrumentation supplier for every request by default"() {
+    given:
+    def invoker = GraphQLQueryInvoker.newBuilder()
+        .withInstrumentation(instrumentation)
+        .build()
+        .toGraphQLInvoker()
+
+    when:
+    3.times { query(invoker) }
+
+    then:
+    instrumentationCalls.get() == 3
+  }
+
+  def "query invoker caches when asked to even with an instrumentation supplier"() {
+    given:
+    def invoker = GraphQLQueryInvoker.newBuilder()
+        .withInstrumentation(instrumentation)
+        .withGraphQLCache(true)
+        .build()
+        .toGraphQLInvoker()
+
+    when:
+    3.times { query(invoker) }
+
+    then:
+    instrumentationCalls.get() == 1
+  }
+
+  def "query invoker caches by default when given instances"() {
+    given:
+    def invoker = GraphQLQueryInvoker.newBuilder()
+        .withInstrumentation(SimplePerformantInstrumentation.INSTANCE)
+        .build()
+        .toGraphQLInvoker()
+
+    expect:
+    query(invoker).data.echo == "test"
+    query(invoker).data.echo == "test"
+  }
+}
@@ -0,0 +1,71 @@
+package graphql.kickstart.servlet
+
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+class GraphQLConfigurationTest extends Specification {
+
+  def builder = GraphQLConfiguration.with(TestUtils.createGraphQlSchema())
+
+  @Requires({ Runtime.version().feature() >= 21 })
+  def "virtual thread mode executes decorated tasks on virtual threads"() {
+    given:
+    def decorated = new AtomicBoolean()
+    AsyncTaskDecorator decorator = { Runnable task -> { -> decorated.set(true); task.run() } }
+    def configuration = builder.asyncVirtualThreads(true).with(decorator).build()
+    def thread = new CompletableFuture<Thread>()
+
+    when:
+    configuration.asyncExecutor.execute { thread.complete(Thread.currentThread()) }
+
+    then:
+    thread.get(5, TimeUnit.SECONDS).isVirtual()
+    decorated.get()
+  }
+
+  @Requires({ Runtime.version().feature() < 21 })
+  def "virtual thread mode fails to build before Java 21"() {
+    when:
+    builder.asyncVirtualThreads(true).build()
+
+    then:
+    def e = thrown(IllegalStateException)
+    e.cause instanceof NoSuchMethodException
+  }
+
+  def "configured executor takes precedence over virtual thread mode"() {
+    given:
+    def executed = new AtomicBoolean()
+
+    when:
+    def configuration = builder
+        .asyncVirtualThreads(true)
+        .with({ Runnable task -> executed.set(true); task.run() } as Executor)
+        .build()
+    configuration.asyncExecutor.execute {}
+
+    then:
+    executed.get()
+  }
+
+  def "slow consumer policies and buffers are configured per transport"() {
+    when:
+    def configuration = builder
+        .subscriptionSlowConsumerPolicy(SlowConsumerPolicy.DISCONNECT)
+        .webSocketSlowConsumerPolicy(SlowConsumerPolicy.CONFLATE_LATEST)
+        .subscriptionBufferSize(8)
+        .webSocketOutboundQueueCapacity(16)
+        .build()
+
+    then:
+    configuration.subscriptionSlowConsumerPolicy == SlowConsumerPolicy.DISCONNECT
+    configuration.webSocketSlowConsumerPolicy == SlowConsumerPolicy.CONFLATE_LATEST
+    configuration.subscriptionBufferSize == 8
+    configuration.webSocketOutboundQueueCapacity == 16
+  }
+}
@@ -0,0 +1,136 @@
+package graphql.kickstart.servlet
+
+import graphql.execution.reactive.SingleSubscriberPublisher
+import graphql.kickstart.execution.subscriptions.SubscriptionProtocolFactory
+import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionConnectionListener
+import graphql.kickstart.servlet.transportws.TransportWsWebSocketSubscriptionProtocolFactory
+import spock.lang.Specification
+
+import jakarta.websocket.CloseReason
+import jakarta.websocket.EndpointConfig
+import jakarta.websocket.MessageHandler
+import jakarta.websocket.RemoteEndpoint
+import jakarta.websocket.SendHandler
+import jakarta.websocket.SendResult
+import jakarta.websocket.Session
+import jakarta.websocket.server.HandshakeRequest
+
+class GraphQLWebsocketServletTest extends Specification {
+
+  GraphQLConfiguration configuration
+  GraphQLWebsocketServlet servlet
+  EndpointConfig endpointConfig
+  SubscriptionProtocolFactory protocolFactory
+
+  def setup() {
+    def schema = TestUtils.createGraphQlSchema(
+        { env -> env.arguments.arg },
+        { env -> env.arguments.arg },
+        { env -> new SingleSubscriberPublisher<String>() })
+    configuration = TestUtils.graphQLConfiguration(schema, null)
+    servlet = new GraphQLWebsocketServlet(configuration)
+    protocolFactory = new TransportWsWebSocketSubscriptionProtocolFactory(
+        configuration.objectMapper,
+        configuration.invocationInputFactory,
+        configuration.graphQLInvoker)
+    endpointConfig = Mock(EndpointConfig)
+    endpointConfig.getUserProperties() >> [(SubscriptionProtocolFactory.name): protocolFactory]
+  }
+
+  def cleanup() {
+    protocolFactory.shutdown()
+    servlet.beginShutDown()
+  }
+
+  def openSession(String id) {
+    def session = Mock(Session)
+    def remote = Mock(RemoteEndpoint.Async)
+    MessageHandler.Whole<String> handler = null
+    session.isOpen() >> true
+    session.getId() >> id
+    session.getUserProperties() >> [(HandshakeRequest.name): Mock(HandshakeRequest)]
+    session.getAsyncRemote() >> remote
+    session.addMessageHandler(_ as MessageHandler) >> { MessageHandler h -> handler = h }
+    remote.sendText(_ as String, _ as SendHandler) >> { String text, SendHandler sendHandler ->
+      sendHandler.onResult(new SendResult())
+    }
+    servlet.onOpen(session, endpointConfig)
+    [session, { String text -> handler.onMessage(text) }]
+  }
+
+  def "counts sessions and subscriptions incrementally"() {
+    when:
+    def (first, sendFirst) = openSession("1")
+    def (second, sendSecond) = openSession("2")
+    sendFirst('{"type":"connection_init"}')
+    sendFirst('{"id":"a","type":"subscribe","payload":{"query":"subscription { echo }"}}')
+    sendFirst('{"id":"b","type":"subscribe","payload":{"query":"subscription { echo }"}}')
+    sendSecond('{"type":"connection_init"}')
+    sendSecond('{"id":"a","type":"subscribe","payload":{"query":"subscription { echo }"}}')
+
+    then:
+    servlet.sessionCount == 2
+    servlet.subscriptionCount == 3
+
+    when:
+    sendFirst('{"id":"a","type":"complete"}')
+
+    then:
+    servlet.subscriptionCount == 2
+
+    when:
+    servlet.onClose(first, null)
+    servlet.onClose(first, null)
+
+    then:
+    servlet.sessionCount == 1
+    servlet.subscriptionCount == 1
+  }
+
+  def "closes sessions on shutdown and rejects new ones"() {
+    given:
+    def (session, send) = openSession("1")
+    send('{"type":"connection_init"}')
+    send('{"id":"a","type":"subscribe","payload":{"query":"subscription { echo }"}}')
+
+    when:
+    servlet.beginShutDown()
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.reasonPhrase == "Server Shut Down" })
+    0 * session.close()
+    servlet.shutDown
+    servlet.sessionCount == 0
+    servlet.subscriptionCount == 0
+
+    when:
+    openSession("2")
+
+    then:
+    thrown(IllegalStateException)
+    servlet.sessionCount == 0
+    servlet.@outboundQueues.isEmpty()
+  }
+
+  def "runs the apollo connection listeners for graphql-transport-ws connections"() {
+    given:
+    def listener = Mock(ApolloSubscriptionConnectionListener) {
+      onConnect(_, _) >> { throw new IllegalArgumentException("Invalid token") }
+    }
+    servlet.beginShutDown()
+    servlet = new GraphQLWebsocketServlet(configuration, [listener])
+    protocolFactory.shutdown()
+    protocolFactory = servlet.@subscriptionProtocolFactories.find {
+      it.protocol == TransportWsWebSocketSubscriptionProtocolFactory.PROTOCOL
+    }
+    endpointConfig = Mock(EndpointConfig)
+    endpointConfig.getUserProperties() >> [(SubscriptionProtocolFactory.name): protocolFactory]
+    def (session, send) = openSession("1")
+
+    when:
+    send('{"type":"connection_init","payload":{"token":"wrong"}}')
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4403 })
+  }
+}
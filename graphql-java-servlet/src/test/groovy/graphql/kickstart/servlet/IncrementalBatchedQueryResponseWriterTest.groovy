@@ -0,0 +1,30 @@
+package graphql.kickstart.servlet
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.ExecutionResult
+import graphql.kickstart.execution.GraphQLObjectMapper
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class IncrementalBatchedQueryResponseWriterTest extends Specification {
+
+  def "should not write the closing boundary when interrupted"() {
+    given:
+    def graphQLObjectMapper = GraphQLObjectMapper.newBuilder().withObjectMapperProvider({ new ObjectMapper() }).build()
+    def response = new MockHttpServletResponse()
+    def writer = new IncrementalBatchedQueryResponseWriter(
+        [new CompletableFuture<ExecutionResult>()], graphQLObjectMapper)
+    Thread.currentThread().interrupt()
+
+    when:
+    writer.write(new MockHttpServletRequest(), response)
+
+    then:
+    thrown(InterruptedIOException)
+    Thread.interrupted()
+    !response.getContentAsString().contains("-----")
+  }
+}
@@ -1,34 +1,90 @@
 package graphql.kickstart.servlet
 
 import graphql.ExecutionResult
+import graphql.ExecutionResultImpl
+import graphql.execution.reactive.SingleSubscriberPublisher
 import graphql.kickstart.execution.GraphQLObjectMapper
 import org.springframework.mock.web.MockAsyncContext
+import org.springframework.mock.web.MockHttpServletResponse
 import spock.lang.Specification
 
+import jakarta.servlet.AsyncContext
 import jakarta.servlet.http.HttpServletRequest
-import jakarta.servlet.http.HttpServletResponse
 
 class SingleAsynchronousQueryResponseWriterTest extends Specification {
 
   def "result data is no publisher should"() {
     given:
-    def result = Mock(ExecutionResult)
-    def objectMapper = Mock(GraphQLObjectMapper)
+    def result = ExecutionResultImpl.newExecutionResult().data([echo: "test"]).build()
+    def objectMapper = GraphQLObjectMapper.newBuilder().build()
     def writer = new SingleAsynchronousQueryResponseWriter(result, objectMapper, 100)
     def request = Mock(HttpServletRequest)
-    def responseWriter = new PrintWriter(new StringWriter())
-    def response = Mock(HttpServletResponse)
-    response.getWriter() >> responseWriter
+    def response = new MockHttpServletResponse()
     def asyncContext = new MockAsyncContext(request, response)
     request.getAsyncContext() >> asyncContext
     request.isAsyncStarted() >> true
-    objectMapper.serializeResultAsJson(result) >> "{ }"
 
     when:
     writer.write(request, response)
 
     then:
     noExceptionThrown()
+    response.getContentAsString() == 'data: {"data":{"echo":"test"}}\n\n'
   }
 
+  def "write returns without waiting for the subscription to terminate"() {
+    given:
+    def publisher = new SingleSubscriberPublisher<ExecutionResult>()
+    def result = Mock(ExecutionResult)
+    result.getData() >> publisher
+    def objectMapper = GraphQLObjectMapper.newBuilder().build()
+    def writer = new SingleAsynchronousQueryResponseWriter(result, objectMapper, 100)
+    def request = Mock(HttpServletRequest)
+    def response = new MockHttpServletResponse()
+    def asyncContext = Mock(AsyncContext)
+    asyncContext.getResponse() >> response
+    request.getAsyncContext() >> asyncContext
+    request.isAsyncStarted() >> true
+
+    when:
+    def completion = writer.writeAsync(request, response)
+    publisher.offer(ExecutionResultImpl.newExecutionResult().data([echo: "first"]).build())
+
+    then:
+    !completion.isDone()
+    response.getContentAsString() == 'data: {"data":{"echo":"first"}}\n\n'
+
+    when:
+    publisher.noMoreData()
+
+    then:
+    completion.isDone()
+    0 * asyncContext.complete()
+  }
+
+  def "write waits for the subscription to terminate when async processing was started"() {
+    given:
+    def publisher = new SingleSubscriberPublisher<ExecutionResult>()
+    def result = Mock(ExecutionResult)
+    result.getData() >> publisher
+    def objectMapper = GraphQLObjectMapper.newBuilder().build()
+    def writer = new SingleAsynchronousQueryResponseWriter(result, objectMapper, 100)
+    def request = Mock(HttpServletRequest)
+    def response = new MockHttpServletResponse()
+    def asyncContext = Mock(AsyncContext)
+    asyncContext.getResponse() >> response
+    request.getAsyncContext() >> asyncContext
+    request.isAsyncStarted() >> true
+    Thread.start {
+      Thread.sleep(100)
+      publisher.offer(ExecutionResultImpl.newExecutionResult().data([echo: "first"]).build())
+      publisher.noMoreData()
+    }
+
+    when:
+    writer.write(request, response)
+
+    then:
+    response.getContentAsString() == 'data: {"data":{"echo":"first"}}\n\n'
+  }
 }
@@ -0,0 +1,48 @@
+package graphql.kickstart.servlet
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.ExecutionResultImpl
+import graphql.kickstart.execution.GraphQLObjectMapper
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import jakarta.servlet.ServletOutputStream
+import jakarta.servlet.http.HttpServletRequest
+import jakarta.servlet.http.HttpServletResponse
+import java.nio.charset.StandardCharsets
+
+class StreamingSingleQueryResponseWriterTest extends Specification {
+
+  @Unroll
+  def "should stream utf8 results into the response with content #result"() {
+    given:
+    def byteArrayOutputStream = new ByteArrayOutputStream()
+    def graphQLObjectMapper = GraphQLObjectMapper.newBuilder().withObjectMapperProvider({ new ObjectMapper() }).build()
+
+    def requestMock = Mock(HttpServletRequest)
+    def responseMock = Mock(HttpServletResponse)
+    def servletOutputStreamMock = Mock(ServletOutputStream)
+
+    responseMock.getOutputStream() >> servletOutputStreamMock
+
+    0 * responseMock.setContentLength(_)
+    1 * responseMock.setCharacterEncoding(StandardCharsets.UTF_8.name())
+    (1.._) * servletOutputStreamMock.write(_, _, _) >> { args ->
+      byteArrayOutputStream.write((byte[]) args[0], (int) args[1], (int) args[2])
+    }
+    0 * servletOutputStreamMock.close()
+
+    def writer = new StreamingSingleQueryResponseWriter(new ExecutionResultImpl(result, []), graphQLObjectMapper)
+
+    when:
+    writer.write(requestMock, responseMock)
+
+    then:
+    byteArrayOutputStream.toString(StandardCharsets.UTF_8.name()) == expectedResponseContent
+
+    where:
+    result                || expectedResponseContent
+    [testValue: "abcde"]  || """{"data":{"testValue":"abcde"}}"""
+    [testValue: "äöüüöß"] || """{"data":{"testValue":"äöüüöß"}}"""
+  }
+}
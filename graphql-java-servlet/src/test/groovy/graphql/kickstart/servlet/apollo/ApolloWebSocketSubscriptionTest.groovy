@@ -0,0 +1,79 @@
+package graphql.kickstart.servlet.apollo
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.kickstart.servlet.GraphQLConfiguration
+import graphql.kickstart.servlet.TestUtils
+import spock.lang.Specification
+
+import jakarta.websocket.RemoteEndpoint
+import jakarta.websocket.SendHandler
+import jakarta.websocket.SendResult
+import jakarta.websocket.Session
+import jakarta.websocket.server.HandshakeRequest
+import java.util.function.Consumer
+
+class ApolloWebSocketSubscriptionTest extends Specification {
+
+  def jsonMapper = new ObjectMapper()
+  def session = Mock(Session)
+  def remote = Mock(RemoteEndpoint.Async)
+  List<Map<String, Object>> frames = []
+  ApolloWebSocketSubscriptionProtocolFactory factory
+  Consumer<String> consumer
+
+  def setup() {
+    session.isOpen() >> true
+    session.getId() >> "1"
+    session.getUserProperties() >> [(HandshakeRequest.name): Mock(HandshakeRequest)]
+    session.getAsyncRemote() >> remote
+    remote.sendText(_ as String, _ as SendHandler) >> { String text, SendHandler handler ->
+      frames << jsonMapper.readValue(text, Map)
+      handler.onResult(new SendResult())
+    }
+
+    GraphQLConfiguration configuration =
+        TestUtils.graphQLConfiguration(TestUtils.createGraphQlSchema(), null)
+    factory = new ApolloWebSocketSubscriptionProtocolFactory(
+        configuration.objectMapper,
+        configuration.invocationInputFactory,
+        configuration.graphQLInvoker,
+        [])
+    consumer = factory.createConsumer(factory.createSession(session))
+  }
+
+  def cleanup() {
+    factory.shutdown()
+  }
+
+  def "streams subscription results and completes"() {
+    when:
+    consumer.accept('{"id":"s1","type":"start","payload":{"query":"subscription { echo(arg: \\"hi\\") }"}}')
+
+    then:
+    frames == [
+        [type: "data", id: "s1", payload: [data: [echo: "hi"]]],
+        [type: "complete", id: "s1"]
+    ]
+  }
+
+  def "completes queries with a single result"() {
+    when:
+    consumer.accept('{"id":"q1","type":"start","payload":{"query":"query { echo(arg: \\"q\\") }"}}')
+
+    then:
+    frames == [
+        [type: "data", id: "q1", payload: [data: [echo: "q"]]],
+        [type: "complete", id: "q1"]
+    ]
+  }
+
+  def "sends error for invalid operation"() {
+    when:
+    consumer.accept('{"id":"q1","type":"start","payload":{"query":"query { unknown }"}}')
+
+    then:
+    frames.size() == 1
+    frames[0].type == "error"
+    frames[0].id == "q1"
+  }
+}
@@ -0,0 +1,49 @@
+package graphql.kickstart.servlet.cache
+
+import graphql.kickstart.execution.input.GraphQLSingleInvocationInput
+import graphql.kickstart.servlet.QueryResponseWriter
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+
+import jakarta.servlet.http.HttpServletRequest
+import jakarta.servlet.http.HttpServletResponse
+import java.util.concurrent.CompletableFuture
+
+class CachingQueryResponseWriterTest extends Specification {
+
+  def "async write caches the response once the delegate has written all of it"() {
+    given:
+    def completion = new CompletableFuture<Void>()
+    def delegateResponse = new CompletableFuture<HttpServletResponse>()
+    def delegate = Mock(QueryResponseWriter) {
+      writeAsync(_, _) >> { HttpServletRequest request, HttpServletResponse response ->
+        delegateResponse.complete(response)
+        response.getWriter().write("first")
+        completion
+      }
+    }
+    def request = Mock(HttpServletRequest)
+    def invocationInput = Mock(GraphQLSingleInvocationInput)
+    def responseCache = Mock(GraphQLResponseCacheManager) {
+      isCacheable(request, invocationInput) >> true
+    }
+    def writer = new CachingQueryResponseWriter(delegate, responseCache, invocationInput, false)
+    def response = new MockHttpServletResponse()
+
+    when:
+    def written = writer.writeAsync(request, response)
+
+    then:
+    !written.isDone()
+    0 * responseCache.put(_, _, _)
+
+    when:
+    delegateResponse.get().getWriter().write(" second")
+    completion.complete(null)
+
+    then:
+    written.isDone()
+    1 * responseCache.put(request, invocationInput, { new String(it.contentBytes) == "first second" })
+    response.getContentAsString() == "first second"
+  }
+}
@@ -0,0 +1,189 @@
+package graphql.kickstart.servlet.subscriptions
+
+import graphql.kickstart.servlet.SlowConsumerPolicy
+import spock.lang.Specification
+
+import jakarta.websocket.CloseReason
+import jakarta.websocket.RemoteEndpoint
+import jakarta.websocket.SendHandler
+import jakarta.websocket.SendResult
+import jakarta.websocket.Session
+
+class WebSocketOutboundQueueTest extends Specification {
+
+  def session = Mock(Session)
+  def remote = Mock(RemoteEndpoint.Async)
+  def metrics = new WebSocketOutboundMetrics()
+  List<String> sent = []
+  List<SendHandler> handlers = []
+
+  def setup() {
+    session.isOpen() >> true
+    session.getAsyncRemote() >> remote
+    remote.sendText(_ as String, _ as SendHandler) >> { String text, SendHandler handler ->
+      sent << text
+      handlers << handler
+    }
+  }
+
+  def queue(SlowConsumerPolicy policy) {
+    new WebSocketOutboundQueue(session, 2, policy, metrics)
+  }
+
+  def completeSends() {
+    while (handlers) {
+      handlers.remove(0).onResult(new SendResult())
+    }
+  }
+
+  def "sends one message at a time"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.DROP_OLDEST)
+
+    when:
+    queue.send("a")
+    queue.send("1", "b")
+
+    then:
+    sent == ["a"]
+    queue.size() == 1
+    metrics.queueDepth == 1
+
+    when:
+    completeSends()
+
+    then:
+    sent == ["a", "b"]
+    queue.size() == 0
+    metrics.queueDepth == 0
+    metrics.sentCount == 2
+  }
+
+  def "drops oldest data message but keeps control messages when full"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.DROP_OLDEST)
+
+    when:
+    queue.send("first")
+    queue.send("control")
+    queue.send("1", "a")
+    queue.send("1", "b")
+    completeSends()
+
+    then:
+    sent == ["first", "control", "b"]
+    metrics.droppedCount == 1
+  }
+
+  def "conflates pending data messages of the same subscription"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.CONFLATE_LATEST)
+
+    when:
+    queue.send("first")
+    queue.send("1", "a1")
+    queue.send("2", "b1")
+    queue.send("1", "a2")
+    queue.send("2", "b2")
+    completeSends()
+
+    then:
+    sent == ["first", "a2", "b2"]
+    metrics.droppedCount == 2
+  }
+
+  def "closes session when full with disconnect policy"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.DISCONNECT)
+
+    when:
+    queue.send("first")
+    queue.send("1", "a")
+    queue.send("1", "b")
+    queue.send("1", "c")
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode == CloseReason.CloseCodes.VIOLATED_POLICY })
+    queue.size() == 0
+    metrics.queueDepth == 0
+    metrics.disconnectCount == 1
+
+    when:
+    queue.send("1", "d")
+    completeSends()
+
+    then:
+    sent == ["first"]
+  }
+
+  def "closing releases a publisher waiting for room right away"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.BACKPRESSURE)
+    queue.send("first")
+    queue.send("1", "a")
+    queue.send("1", "b")
+    def publisher = Thread.start { queue.send("1", "c") }
+
+    when:
+    while (publisher.state != Thread.State.TIMED_WAITING) {
+      Thread.sleep(1)
+    }
+    queue.close()
+    publisher.join(500)
+
+    then:
+    !publisher.isAlive()
+    queue.size() == 2
+  }
+
+  def "drops the oldest data message by default"() {
+    given:
+    def queue = new WebSocketOutboundQueue(session)
+
+    when:
+    queue.send("first")
+    (1..WebSocketOutboundQueue.DEFAULT_CAPACITY + 1).each { queue.send("1", "$it") }
+    completeSends()
+
+    then:
+    sent.size() == WebSocketOutboundQueue.DEFAULT_CAPACITY + 1
+    sent[1] == "2"
+  }
+
+  def "closes session after pending messages are sent"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.BACKPRESSURE)
+    queue.send("first")
+    queue.send("last")
+
+    when:
+    queue.close()
+
+    then:
+    0 * session.close()
+
+    when:
+    completeSends()
+
+    then:
+    sent == ["first", "last"]
+    1 * session.close()
+  }
+
+  def "discards pending messages and closes the session when sending fails"() {
+    given:
+    def queue = queue(SlowConsumerPolicy.BACKPRESSURE)
+    queue.send("first")
+    queue.send("1", "a")
+
+    when:
+    handlers.remove(0).onResult(new SendResult(new IOException("gone")))
+    queue.send("1", "b")
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode == CloseReason.CloseCodes.UNEXPECTED_CONDITION })
+    sent == ["first"]
+    queue.size() == 0
+    metrics.queueDepth == 0
+  }
+}
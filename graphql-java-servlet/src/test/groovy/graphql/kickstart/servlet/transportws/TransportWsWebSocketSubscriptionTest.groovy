@@ -0,0 +1,251 @@
+package graphql.kickstart.servlet.transportws
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.kickstart.execution.subscriptions.SubscriptionSession
+import graphql.kickstart.execution.subscriptions.apollo.ApolloSubscriptionConnectionListener
+import graphql.kickstart.execution.subscriptions.apollo.OperationMessage
+import graphql.kickstart.execution.subscriptions.transportws.ApolloConnectionListenerAdapter
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsMessage
+import graphql.kickstart.execution.subscriptions.transportws.TransportWsSubscriptionConnectionListener
+import graphql.kickstart.servlet.GraphQLConfiguration
+import graphql.kickstart.servlet.TestUtils
+import spock.lang.Specification
+
+import jakarta.websocket.CloseReason
+import jakarta.websocket.RemoteEndpoint
+import jakarta.websocket.SendHandler
+import jakarta.websocket.SendResult
+import jakarta.websocket.Session
+import jakarta.websocket.server.HandshakeRequest
+import java.time.Duration
+import java.util.function.Consumer
+
+class TransportWsWebSocketSubscriptionTest extends Specification {
+
+  def jsonMapper = new ObjectMapper()
+  def session = Mock(Session)
+  def remote = Mock(RemoteEndpoint.Async)
+  List<Map<String, Object>> frames = []
+  boolean open = true
+  TransportWsWebSocketSubscriptionProtocolFactory factory
+  Consumer<String> consumer
+
+  def setup() {
+    session.isOpen() >> { open }
+    session.getId() >> "1"
+    session.getUserProperties() >> [(HandshakeRequest.name): Mock(HandshakeRequest)]
+    session.getAsyncRemote() >> remote
+    remote.sendText(_ as String, _ as SendHandler) >> { String text, SendHandler handler ->
+      frames << jsonMapper.readValue(text, Map)
+      handler.onResult(new SendResult())
+    }
+
+    consumer = createConsumer(Duration.ofSeconds(10))
+  }
+
+  def createConsumer(
+      Duration connectionInitialisationTimeout,
+      List<TransportWsSubscriptionConnectionListener> listeners = []) {
+    factory?.shutdown()
+    GraphQLConfiguration configuration =
+        TestUtils.graphQLConfiguration(TestUtils.createGraphQlSchema(), null)
+    factory = new TransportWsWebSocketSubscriptionProtocolFactory(
+        configuration.objectMapper,
+        configuration.invocationInputFactory,
+        configuration.graphQLInvoker,
+        listeners,
+        connectionInitialisationTimeout)
+    factory.createConsumer(factory.createSession(session))
+  }
+
+  def cleanup() {
+    factory.shutdown()
+  }
+
+  def "acknowledges connection and answers pings"() {
+    when:
+    consumer.accept('{"type":"connection_init","payload":{}}')
+    consumer.accept('{"type":"ping"}')
+    consumer.accept('{"type":"pong"}')
+
+    then:
+    frames == [[type: "connection_ack"], [type: "pong"]]
+  }
+
+  def "streams subscription results and completes"() {
+    given:
+    consumer.accept('{"type":"connection_init"}')
+
+    when:
+    consumer.accept('{"id":"s1","type":"subscribe","payload":{"query":"subscription { echo(arg: \\"hi\\") }"}}')
+
+    then:
+    frames == [
+        [type: "connection_ack"],
+        [type: "next", id: "s1", payload: [data: [echo: "hi"]]],
+        [type: "complete", id: "s1"]
+    ]
+  }
+
+  def "completes queries and mutations with a single result"() {
+    given:
+    consumer.accept('{"type":"connection_init"}')
+
+    when:
+    consumer.accept('{"id":"q1","type":"subscribe","payload":{"query":"query { echo(arg: \\"q\\") }"}}')
+    consumer.accept('{"id":"m1","type":"subscribe","payload":{"query":"mutation { echo(arg: \\"m\\") }"}}')
+
+    then:
+    frames == [
+        [type: "connection_ack"],
+        [type: "next", id: "q1", payload: [data: [echo: "q"]]],
+        [type: "complete", id: "q1"],
+        [type: "next", id: "m1", payload: [data: [echo: "m"]]],
+        [type: "complete", id: "m1"]
+    ]
+  }
+
+  def "sends field errors of queries with their result"() {
+    given:
+    consumer.accept('{"type":"connection_init"}')
+
+    when:
+    consumer.accept('{"id":"q1","type":"subscribe","payload":{"query":"query { returnsNullIncorrectly }"}}')
+
+    then:
+    frames.size() == 3
+    frames[1].type == "next"
+    frames[1].payload.errors.size() == 1
+    frames[2] == [type: "complete", id: "q1"]
+  }
+
+  def "sends error for invalid operation"() {
+    given:
+    consumer.accept('{"type":"connection_init"}')
+
+    when:
+    consumer.accept('{"type":"subscribe","id":"s1","payload":{"query":"subscription { unknown }"}}')
+
+    then:
+    frames.size() == 2
+    frames[1].type == "error"
+    frames[1].id == "s1"
+    frames[1].payload instanceof List
+  }
+
+  def "closes connection when subscribing before initialisation"() {
+    when:
+    consumer.accept('{"type":"subscribe","id":"s1","payload":{"query":"subscription { echo }"}}')
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4401 })
+    frames.isEmpty()
+  }
+
+  def "closes connection on second initialisation"() {
+    when:
+    consumer.accept('{"type":"connection_init"}')
+    consumer.accept('{"type":"connection_init"}')
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4429 })
+  }
+
+  def "closes connection on invalid message"() {
+    when:
+    consumer.accept(message)
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4400 })
+
+    where:
+    message << ['not json', '{"type":"unknown"}', '{"type":"next","id":"1"}']
+  }
+
+  def "closes connection when not initialised in time"() {
+    when:
+    createConsumer(Duration.ofMillis(50))
+    Thread.sleep(500)
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4408 })
+  }
+
+  def "keeps connection open when initialised in time"() {
+    when:
+    consumer = createConsumer(Duration.ofMillis(200))
+    consumer.accept('{"type":"connection_init"}')
+    Thread.sleep(500)
+
+    then:
+    0 * session.close(_)
+  }
+
+  def "runs connection listeners before acknowledging the connection"() {
+    given:
+    def listener = Mock(TransportWsSubscriptionConnectionListener)
+    consumer = createConsumer(Duration.ofSeconds(10), [listener])
+
+    when:
+    consumer.accept('{"type":"connection_init","payload":{"token":"secret"}}')
+
+    then:
+    1 * listener.onConnect(_ as SubscriptionSession, _ as TransportWsMessage) >> {
+      SubscriptionSession s, TransportWsMessage message ->
+        assert message.payload == [token: "secret"]
+        assert frames.isEmpty()
+    }
+    frames == [[type: "connection_ack"]]
+  }
+
+  def "closes connection with 4403 when a connection listener rejects it"() {
+    given:
+    def listener = Mock(TransportWsSubscriptionConnectionListener) {
+      onConnect(_, _) >> { throw new IllegalArgumentException("Invalid token") }
+    }
+    consumer = createConsumer(Duration.ofSeconds(10), [listener])
+
+    when:
+    consumer.accept('{"type":"connection_init","payload":{"token":"wrong"}}')
+
+    then:
+    1 * session.close({ CloseReason reason -> reason.closeCode.code == 4403 })
+    frames.isEmpty()
+  }
+
+  def "apollo connection listeners see graphql-ws messages with map payloads"() {
+    given:
+    def listener = Mock(ApolloSubscriptionConnectionListener)
+    consumer = createConsumer(
+        Duration.ofSeconds(10), [new ApolloConnectionListenerAdapter(listener)])
+
+    when:
+    consumer.accept('{"type":"connection_init","payload":{"token":"secret"}}')
+    consumer.accept('{"id":"s1","type":"subscribe","payload":{"query":"subscription { echo }"}}')
+
+    then:
+    1 * listener.onConnect(_, { OperationMessage it ->
+      it.type == OperationMessage.Type.GQL_CONNECTION_INIT && it.payload == [token: "secret"]
+    })
+    1 * listener.onStart(_, { OperationMessage it ->
+      it.type == OperationMessage.Type.GQL_START && it.id == "s1" &&
+          it.payload instanceof Map && it.payload.query == "subscription { echo }"
+    })
+  }
+
+  def "apollo connection listeners are stopped when the client completes an operation"() {
+    given:
+    def listener = Mock(ApolloSubscriptionConnectionListener)
+    def adapter = new ApolloConnectionListenerAdapter(listener)
+    def subscriptionSession = Mock(SubscriptionSession)
+
+    when:
+    adapter.onComplete(
+        subscriptionSession, new TransportWsMessage(TransportWsMessage.Type.COMPLETE, "s1", null))
+
+    then:
+    1 * listener.onStop(subscriptionSession, { OperationMessage it ->
+      it.type == OperationMessage.Type.GQL_STOP && it.id == "s1"
+    })
+  }
+}